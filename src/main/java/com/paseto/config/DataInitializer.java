@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
@@ -18,6 +20,8 @@ public class DataInitializer {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // Runs before other ApplicationReadyEvent listeners that read the seeded data
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     @EventListener(ApplicationReadyEvent.class)
     public void initData() {
         log.info("Checking if database needs to be initialized...");
@@ -25,6 +29,16 @@ public class DataInitializer {
         // Create indexes for performance optimization
         log.info("Creating database indexes...");
         executeSqlScript("db/migration/V1__Add_Indexes.sql");
+        executeSqlScript("db/migration/V4__Add_Session_Cap_Index.sql");
+        executeSqlScript("db/migration/V5__Intern_User_Agents.sql");
+        executeSqlScript("db/migration/V6__Add_Product_Keyset_Index.sql");
+        executeSqlScript("db/migration/V7__Add_Product_Search_Vector.sql");
+        executeSqlScript("db/migration/V8__Product_Id_Sequence.sql");
+        executeSqlScript("db/migration/V9__Add_Product_Sku_Unique.sql");
+        executeSqlScript("db/migration/V10__Add_Product_Price_Keyset_Index.sql");
+        executeSqlScript("db/migration/V11__Add_Product_Changes_Indexes.sql");
+        executeSqlScript("db/migration/V12__Add_Device_Session_Indexes.sql");
+        executeSqlScript("db/migration/V13__Add_Catalog_Version.sql");
 
         // Check if banners table has data
         Integer bannerCount = jdbcTemplate.queryForObject(
@@ -0,0 +1,39 @@
+package com.paseto.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Detects the database product once at startup, so services can pick
+ * PostgreSQL-specific SQL and fall back to portable SQL elsewhere (H2 in tests).
+ */
+@Slf4j
+@Component
+public class DatabasePlatform {
+
+    private final boolean postgreSql;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.postgreSql = "PostgreSQL".equalsIgnoreCase(detectProductName(dataSource));
+    }
+
+    public boolean isPostgreSql() {
+        return postgreSql;
+    }
+
+    private String detectProductName(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            log.info("Detected database platform: {}", productName);
+            return productName;
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect database platform, using portable SQL", e);
+            return "unknown";
+        }
+    }
+}
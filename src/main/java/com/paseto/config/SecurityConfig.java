@@ -3,6 +3,7 @@ package com.paseto.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paseto.filter.PasetoAuthenticationFilter;
 import com.paseto.service.PasetoV4Service;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -30,6 +31,9 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses (SSE, export) end with an async dispatch that carries no token;
+                        // the request that opened them was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Swagger UI endpoints
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                         // Public auth endpoints (login, register, refresh, logout)
@@ -1,11 +1,13 @@
 package com.paseto.controller;
 
+import com.paseto.dto.BannerFieldsListResponse;
 import com.paseto.dto.BannerListResponse;
 import com.paseto.dto.BannerRequest;
 import com.paseto.dto.BannerResponse;
 import com.paseto.dto.DeleteResponse;
 import com.paseto.dto.EntityResponse;
 import com.paseto.service.BannerService;
+import com.paseto.service.ChangeBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,11 +16,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/banners")
@@ -27,6 +34,7 @@ import java.util.List;
 public class BannerController {
 
     private final BannerService bannerService;
+    private final ChangeBroadcaster changeBroadcaster;
 
     @Operation(
             summary = "Get all banners",
@@ -45,6 +53,29 @@ public class BannerController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Get all banners with selected fields",
+            description = "Same as Get all banners with only the fields listed in fields, e.g. id,title,imageUrl,linkUrl. " +
+                    "Only those columns are read from the database"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Banners retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown field"
+            )
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<BannerFieldsListResponse> getAllBannerFields(
+            @Parameter(description = "Comma-separated fields, e.g. id,title,imageUrl,linkUrl", required = true)
+            @RequestParam String fields) {
+        List<Map<String, Object>> banners = bannerService.findAllFields(fields);
+        return ResponseEntity.ok(new BannerFieldsListResponse(200, "OK", banners));
+    }
+
     @Operation(
             summary = "Get active banners",
             description = "Retrieve only active banners ordered by display order"
@@ -62,6 +93,47 @@ public class BannerController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Get active banners with selected fields",
+            description = "Same as Get active banners with only the fields listed in fields"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Active banners retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown field"
+            )
+    })
+    @GetMapping(value = "/active", params = "fields")
+    public ResponseEntity<BannerFieldsListResponse> getActiveBannerFields(
+            @Parameter(description = "Comma-separated fields, e.g. id,title,imageUrl,linkUrl", required = true)
+            @RequestParam String fields) {
+        List<Map<String, Object>> banners = bannerService.findActiveFields(fields);
+        return ResponseEntity.ok(new BannerFieldsListResponse(200, "OK", banners));
+    }
+
+    @Operation(
+            summary = "Stream banner changes",
+            description = "Server-Sent Events: a banner event ({\"type\":\"updated\",\"id\":3}) after every committed " +
+                    "create, update or delete, and resync when missed events are no longer available. " +
+                    "Reconnects resume from Last-Event-ID"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened"
+            )
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBannerChanges(
+            @Parameter(description = "Id of the last event received, sent by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeBroadcaster.subscribe(ChangeBroadcaster.Topic.BANNERS, lastEventId);
+    }
+
     @Operation(
             summary = "Get banner by ID",
             description = "Retrieve a specific banner by its ID"
@@ -71,6 +143,10 @@ public class BannerController {
                     responseCode = "200",
                     description = "Banner found"
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "404",
                     description = "Banner not found"
@@ -79,14 +155,20 @@ public class BannerController {
     @GetMapping("/{id}")
     public ResponseEntity<EntityResponse<BannerResponse>> getBannerById(
             @Parameter(description = "Banner ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         BannerResponse data = bannerService.findById(id);
+        String etag = bannerETag(data);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         EntityResponse<BannerResponse> response = EntityResponse.of(
                 200,
                 "Banner found",
                 data
         );
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @Operation(
@@ -117,7 +199,7 @@ public class BannerController {
 
     @Operation(
             summary = "Update banner",
-            description = "Update an existing banner by ID"
+            description = "Update an existing banner by ID. With If-Match, the update only applies to that version"
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -128,6 +210,10 @@ public class BannerController {
                     responseCode = "404",
                     description = "Banner not found"
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "412",
+                    description = "Banner changed since the ETag in If-Match"
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "400",
                     description = "Validation error"
@@ -137,14 +223,17 @@ public class BannerController {
     public ResponseEntity<EntityResponse<BannerResponse>> updateBanner(
             @Parameter(description = "Banner ID", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the banner version being replaced")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody BannerRequest request) {
-        BannerResponse data = bannerService.update(id, request);
+        Long expectedVersion = VersionETags.expectedVersion(ifMatch, "banner", id);
+        BannerResponse data = bannerService.update(id, request, expectedVersion);
         EntityResponse<BannerResponse> response = EntityResponse.of(
                 200,
                 "Banner updated successfully",
                 data
         );
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(bannerETag(data)).body(response);
     }
 
     @Operation(
@@ -174,4 +263,8 @@ public class BannerController {
         );
         return ResponseEntity.ok(response);
     }
+
+    private static String bannerETag(BannerResponse banner) {
+        return VersionETags.of("banner", banner.getId(), banner.getVersion());
+    }
 }
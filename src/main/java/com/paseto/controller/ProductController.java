@@ -1,7 +1,14 @@
 package com.paseto.controller;
 
 import com.paseto.dto.*;
+import com.paseto.service.ChangeBroadcaster;
+import com.paseto.service.ProductBulkService;
+import com.paseto.service.ProductChangesService;
+import com.paseto.service.ProductExportService;
+import com.paseto.service.ProductImportService;
+import com.paseto.service.ProductJsonCache;
 import com.paseto.service.ProductService;
+import com.paseto.service.ProductStockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +18,22 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -24,29 +42,529 @@ import java.util.List;
 @SecurityRequirement(name = "PASETO Authentication")
 public class ProductController {
 
+    // Clients may keep responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductBulkService productBulkService;
+    private final ProductImportService productImportService;
+    private final ProductStockService productStockService;
+    private final ProductChangesService productChangesService;
+    private final ChangeBroadcaster changeBroadcaster;
 
     @Operation(
             summary = "Get all products",
-            description = "Retrieve a list of all products"
+            description = "Retrieve products newest first, one page at a time. Pass the returned nextCursor to get the next page."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "200",
                     description = "Products retrieved successfully"
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized - PASETO token required"
             )
     })
     @GetMapping
-    public ResponseEntity<ProductListResponse> getAllProducts() {
-        List<ProductResponse> products = productService.findAll();
-        ProductListResponse response = new ProductListResponse(200, "OK", products);
+    public ResponseEntity<ProductListResponse> getAllProducts(
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductPage<ProductResponse> page = productService.findPage(cursor, size);
+        ProductListResponse response = new ProductListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Get all products with selected fields",
+            description = "Same pages as Get all products with only the fields listed in fields, e.g. id,name,price,imageUrl. " +
+                    "Only those columns are read from the database"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Products retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown field or invalid cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<ProductFieldsListResponse> getProductFields(
+            @Parameter(description = "Comma-separated fields, e.g. id,name,price,imageUrl", required = true)
+            @RequestParam String fields,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductPage<Map<String, Object>> page = productService.findPageFields(fields, cursor, size);
+        ProductFieldsListResponse response = new ProductFieldsListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Get product changes",
+            description = "Products created or updated and ids of products deleted since the watermark, oldest first. " +
+                    "Without since, the whole catalog. Pass the returned watermark as since on the next call, " +
+                    "right away while hasMore is true"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Changes retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid watermark"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesResponse> getProductChanges(
+            @Parameter(description = "Watermark from the previous call; omit for a full sync")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Most products and most deletes per call, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size) {
+        ProductChanges changes = productChangesService.changesSince(since, size);
+        ProductChangesResponse response = new ProductChangesResponse(200, "OK", changes.getItems(),
+                changes.getDeletedIds(), changes.getWatermark(), changes.isHasMore());
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(response);
+    }
+
+    @Operation(
+            summary = "Stream product changes",
+            description = "Server-Sent Events: a product event ({\"type\":\"updated\",\"id\":7}) after every committed " +
+                    "create, update or delete, stock events listing products whose stock moved, and resync when " +
+                    "missed events are no longer available. Reconnects resume from Last-Event-ID"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductChanges(
+            @Parameter(description = "Id of the last event received, sent by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeBroadcaster.subscribe(ChangeBroadcaster.Topic.PRODUCTS, lastEventId);
+    }
+
+    @Operation(
+            summary = "Get products by IDs",
+            description = "Retrieve up to catalog.lookup.max-ids products in one request, in the order requested, " +
+                    "e.g. for a cart or wishlist. Ids without a product are listed in missingIds"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Products retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "No ids or too many ids"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupResponse> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs, e.g. 12,7,31", required = true)
+            @RequestParam List<Long> ids,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductLookup lookup = productService.findByIds(ids);
+        ProductLookupResponse response = new ProductLookupResponse(200, "OK", lookup.getItems(), lookup.getMissingIds());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Look up products by IDs",
+            description = "Same as Get products by IDs with the ids in the request body, for lists too long for a URL"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Products retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "No ids or too many ids"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookupResponse> lookupProducts(@Valid @RequestBody ProductLookupRequest request) {
+        ProductLookup lookup = productService.findByIds(request.getIds());
+        return ResponseEntity.ok(new ProductLookupResponse(200, "OK", lookup.getItems(), lookup.getMissingIds()));
+    }
+
+    @Operation(
+            summary = "Get product summaries",
+            description = "Same pages as Get all products without the description field; the lighter choice for list views"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Product summaries retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<ProductSummaryListResponse> getProductSummaries(
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductPage<ProductSummaryResponse> page = productService.findSummaryPage(cursor, size);
+        ProductSummaryListResponse response = new ProductSummaryListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Filter products",
+            description = "Products matching every given filter (price range, in stock, active, exact SKU), " +
+                    "one page at a time. Sort by newest, price_asc or price_desc; pass the returned nextCursor with the same filters and sort"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Products retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid filter, sort or cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/query")
+    public ResponseEntity<ProductListResponse> queryProducts(
+            @Parameter(description = "Lowest price, inclusive")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price, inclusive")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "true for stock above zero, false for sold out")
+            @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Active flag")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Exact SKU")
+            @RequestParam(required = false) String sku,
+            @Parameter(description = "newest (default), price_asc or price_desc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, inStock, active, sku);
+        ProductPage<ProductResponse> page = productService.query(filter, sort, cursor, size);
+        ProductListResponse response = new ProductListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Filter products with selected fields",
+            description = "Same as Filter products with only the fields listed in fields. Only those columns are read from the database"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Products retrieved successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown field, invalid filter, sort or cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping(value = "/query", params = "fields")
+    public ResponseEntity<ProductFieldsListResponse> queryProductFields(
+            @Parameter(description = "Comma-separated fields, e.g. id,name,price,imageUrl", required = true)
+            @RequestParam String fields,
+            @Parameter(description = "Lowest price, inclusive")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price, inclusive")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "true for stock above zero, false for sold out")
+            @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Active flag")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Exact SKU")
+            @RequestParam(required = false) String sku,
+            @Parameter(description = "newest (default), price_asc or price_desc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, inStock, active, sku);
+        ProductPage<Map<String, Object>> page = productService.queryFields(filter, sort, fields, cursor, size);
+        ProductFieldsListResponse response = new ProductFieldsListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Full-text product search",
+            description = "Search product names and descriptions with web-search syntax (quoted phrases, OR, -exclusion), best match first"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search completed successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/search/text")
+    public ResponseEntity<ProductListResponse> fullTextSearch(
+            @Parameter(description = "Search query, e.g. wireless -mouse", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductPage<ProductResponse> page = productService.fullTextSearch(q, cursor, size);
+        ProductListResponse response = new ProductListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Substring product search",
+            description = "Case-insensitive substring search over name, SKU and description, served from the in-memory index when enabled"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search completed successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/search/substring")
+    public ResponseEntity<ProductListResponse> substringSearch(
+            @Parameter(description = "Text to find, e.g. AUD-BT or headph", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductPage<ProductResponse> page = productService.substringSearch(q, cursor, size);
+        ProductListResponse response = new ProductListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @Operation(
+            summary = "Suggest product names",
+            description = "Autocomplete product names starting with a prefix (case-insensitive), newest products first"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Suggestions returned"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Blank prefix or invalid limit"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<EntityResponse<List<ProductSuggestion>>> suggestProducts(
+            @Parameter(description = "Beginning of the product name", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Number of suggestions, capped at catalog.suggest.max-results")
+            @RequestParam(required = false) Integer limit) {
+        List<ProductSuggestion> data = productService.suggest(prefix, limit);
+        EntityResponse<List<ProductSuggestion>> response = EntityResponse.of(200, "OK", data);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Product cache statistics",
+            description = "Size, hit ratio, load and eviction counts of the product-by-id cache since startup"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Statistics returned"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/cache/stats")
+    public ResponseEntity<EntityResponse<CacheStatsResponse>> getCacheStats() {
+        EntityResponse<CacheStatsResponse> response = EntityResponse.of(200, "OK", productService.cacheStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Off-heap product store statistics",
+            description = "Products, native memory and id index size of the off-heap store, "
+                    + "next to an estimate of the same products as heap objects"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Statistics returned"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/store/stats")
+    public ResponseEntity<EntityResponse<ProductStoreStatsResponse>> getStoreStats() {
+        EntityResponse<ProductStoreStatsResponse> response = EntityResponse.of(200, "OK", productService.storeStats());
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Export all products",
+            description = "Stream the whole catalog as NDJSON (one product per line) or as a JSON array"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Export streamed successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported export format"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Output format: ndjson or json")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ProductExportService.Format exportFormat = ProductExportService.Format.from(format);
+        String filename = "products." + exportFormat.name().toLowerCase(Locale.ROOT);
+
+        StreamingResponseBody body = outputStream -> productExportService.export(outputStream, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @Operation(
             summary = "Get product by ID",
             description = "Retrieve a specific product by its ID"
@@ -56,6 +574,10 @@ public class ProductController {
                     responseCode = "200",
                     description = "Product found"
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "404",
                     description = "Product not found"
@@ -66,16 +588,22 @@ public class ProductController {
             )
     })
     @GetMapping("/{id}")
-    public ResponseEntity<EntityResponse<ProductResponse>> getProductById(
+    public ResponseEntity<byte[]> getProductById(
             @Parameter(description = "Product ID", required = true)
-            @PathVariable Long id) {
-        ProductResponse data = productService.findById(id);
-        EntityResponse<ProductResponse> response = EntityResponse.of(
-                200,
-                "Product found",
-                data
-        );
-        return ResponseEntity.ok(response);
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        // Body rendered once per product version; the byte array converter copies it out as is
+        ProductJsonCache.Rendered rendered = productService.findRenderedById(id);
+        String etag = VersionETags.of("product", rendered.id(), rendered.version());
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rendered.body());
     }
 
     @Operation(
@@ -108,9 +636,67 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(
+            summary = "Bulk create, update and delete products",
+            description = "Apply many product operations in one request. The body is a JSON array or NDJSON of " +
+                    "{\"op\": \"create|update|delete\", \"id\": ..., \"product\": {...}} elements; each element gets its own result"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Operations processed; see the per-element results"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<EntityResponse<ProductBulkResponse>> bulkProducts(InputStream body) throws IOException {
+        ProductBulkResponse data = productBulkService.apply(body);
+        EntityResponse<ProductBulkResponse> response = EntityResponse.of(
+                200,
+                "Bulk operation completed",
+                data
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Import products from CSV",
+            description = "Upsert products by SKU from a CSV body. The header row names the columns: name, price, stock " +
+                    "and sku are required, description, image_url and active are optional. Invalid rows are skipped and " +
+                    "reported with their line number"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Import completed; see the counts and rejected lines"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Missing or unknown header columns, or malformed CSV"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<EntityResponse<ProductImportResponse>> importProducts(InputStream body) throws IOException {
+        ProductImportResponse data = productImportService.importCsv(body);
+        EntityResponse<ProductImportResponse> response = EntityResponse.of(
+                200,
+                "Import completed",
+                data
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             summary = "Update product",
-            description = "Update an existing product by ID"
+            description = "Update an existing product by ID. Send the ETag from a previous read in If-Match " +
+                    "to reject the update if someone else changed the product in the meantime"
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -121,6 +707,10 @@ public class ProductController {
                     responseCode = "404",
                     description = "Product not found"
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "412",
+                    description = "Product changed since the ETag in If-Match"
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "400",
                     description = "Validation error"
@@ -134,13 +724,84 @@ public class ProductController {
     public ResponseEntity<EntityResponse<ProductResponse>> updateProduct(
             @Parameter(description = "Product ID", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the product version being replaced")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductRequest request) {
-        ProductResponse data = productService.update(id, request);
+        Long expectedVersion = VersionETags.expectedVersion(ifMatch, "product", id);
+        ProductResponse data = productService.update(id, request, expectedVersion);
         EntityResponse<ProductResponse> response = EntityResponse.of(
                 200,
                 "Product updated successfully",
                 data
         );
+        return ResponseEntity.ok().eTag(productETag(data)).body(response);
+    }
+
+    @Operation(
+            summary = "Reserve product stock",
+            description = "Atomically take units of a product's stock, e.g. for an order. Fails instead of going below zero"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Stock reserved"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "Not enough stock left"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Validation error or product not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<EntityResponse<StockResponse>> reserveStock(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StockRequest request) {
+        StockResponse data = productStockService.reserve(id, request.getQuantity());
+        EntityResponse<StockResponse> response = EntityResponse.of(
+                200,
+                "Stock reserved",
+                data
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Release product stock",
+            description = "Atomically put reserved units back, e.g. for a cancelled order"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Stock released"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Validation error or product not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - PASETO token required"
+            )
+    })
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<EntityResponse<StockResponse>> releaseStock(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StockRequest request) {
+        StockResponse data = productStockService.release(id, request.getQuantity());
+        EntityResponse<StockResponse> response = EntityResponse.of(
+                200,
+                "Stock released",
+                data
+        );
         return ResponseEntity.ok(response);
     }
 
@@ -193,9 +854,31 @@ public class ProductController {
     @GetMapping("/search")
     public ResponseEntity<ProductListResponse> searchProducts(
             @Parameter(description = "Product name to search for", required = true)
-            @RequestParam String name) {
-        List<ProductResponse> products = productService.searchByName(name);
-        ProductListResponse response = new ProductListResponse(200, "OK", products);
-        return ResponseEntity.ok(response);
+            @RequestParam String name,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at catalog.max-page-size")
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        ProductPage<ProductResponse> page = productService.searchPage(name, cursor, size);
+        ProductListResponse response = new ProductListResponse(200, "OK", page.getItems(), page.getNextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+    }
+
+    private String catalogETag() {
+        return "\"catalog-" + productService.catalogVersion() + "\"";
+    }
+
+    private String productETag(ProductResponse product) {
+        return VersionETags.of("product", product.getId(), product.getVersion());
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
     }
 }
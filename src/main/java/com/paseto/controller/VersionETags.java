@@ -0,0 +1,41 @@
+package com.paseto.controller;
+
+import com.paseto.exception.PreconditionFailedException;
+
+/**
+ * Strong ETags for single products and banners, built from their optimistic lock
+ * version, and the way back from an If-Match header to that version.
+ */
+final class VersionETags {
+
+    private VersionETags() {
+    }
+
+    static String of(String type, Long id, Long version) {
+        return "\"" + type + "-" + id + "-v" + version + "\"";
+    }
+
+    /**
+     * Version an If-Match header expects, or null when there is no header or it is
+     * {@code *} (the update then only needs the entity to exist).
+     *
+     * @throws PreconditionFailedException if the header holds a weak tag, a list, or
+     *                                     the tag of another entity; none of these can match
+     */
+    static Long expectedVersion(String ifMatch, String type, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        String prefix = "\"" + type + "-" + id + "-v";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failed precondition
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current " + type);
+    }
+}
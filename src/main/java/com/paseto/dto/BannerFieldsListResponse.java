@@ -0,0 +1,19 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BannerFieldsListResponse {
+
+    private Integer code;
+    private String status;
+    // Only the fields asked for with ?fields=
+    private List<Map<String, Object>> data;
+}
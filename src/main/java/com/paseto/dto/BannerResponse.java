@@ -18,6 +18,7 @@ public class BannerResponse {
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public static BannerResponse fromEntity(com.paseto.entity.Banner banner) {
         return new BannerResponse(
@@ -29,7 +30,8 @@ public class BannerResponse {
             banner.getDisplayOrder(),
             banner.getActive(),
             banner.getCreatedAt(),
-            banner.getUpdatedAt()
+            banner.getUpdatedAt(),
+            banner.getVersion()
         );
     }
 }
@@ -0,0 +1,20 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+
+    private Long estimatedSize;
+    private Long requestCount;
+    private Long hitCount;
+    private Long missCount;
+    private Double hitRate;
+    private Long loadFailureCount;
+    private Double averageLoadPenaltyMillis;
+    private Long evictionCount;
+}
@@ -0,0 +1,15 @@
+package com.paseto.dto;
+
+import lombok.Data;
+
+/**
+ * One element of a bulk request: {@code op} is create, update or delete;
+ * {@code id} is required for update and delete, {@code product} for create and update.
+ */
+@Data
+public class ProductBulkOperation {
+
+    private String op;
+    private Long id;
+    private ProductRequest product;
+}
@@ -0,0 +1,17 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductBulkResponse {
+
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    // One entry per input element, in input order
+    private List<ProductBulkResult> results;
+}
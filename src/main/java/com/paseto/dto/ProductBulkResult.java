@@ -0,0 +1,27 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one bulk element. {@code status} uses the code the single-item
+ * endpoint would return (201, 200, 400, 404, ...); {@code error} is null on success.
+ */
+@Data
+@AllArgsConstructor
+public class ProductBulkResult {
+
+    private Integer index;
+    private String op;
+    private Integer status;
+    private Long id;
+    private String error;
+
+    public static ProductBulkResult ok(int index, String op, int status, Long id) {
+        return new ProductBulkResult(index, op, status, id, null);
+    }
+
+    public static ProductBulkResult failed(int index, String op, int status, Long id, String error) {
+        return new ProductBulkResult(index, op, status, id, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductChanges {
+
+    // Created or updated products, oldest change first
+    private List<ProductResponse> items;
+    private List<Long> deletedIds;
+    private String watermark;
+    private boolean hasMore;
+}
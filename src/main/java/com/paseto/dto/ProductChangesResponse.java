@@ -0,0 +1,24 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesResponse {
+
+    private Integer code;
+    private String status;
+    // Products created or updated since the watermark; replace the local copy
+    private List<ProductResponse> data;
+    // Products deleted since the watermark; drop them locally
+    private List<Long> deletedIds;
+    // Pass as since on the next call
+    private String watermark;
+    // More changes are waiting; call again right away with the new watermark
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFieldsListResponse {
+
+    private Integer code;
+    private String status;
+    // Only the fields asked for with ?fields=
+    private List<Map<String, Object>> data;
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional product filters; null fields do not filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    // true: stock above zero, false: sold out
+    private Boolean inStock;
+    private Boolean active;
+    // Exact match
+    private String sku;
+}
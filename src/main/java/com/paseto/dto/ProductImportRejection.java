@@ -0,0 +1,13 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductImportRejection {
+
+    // 1-based line of the CSV file on which the rejected record starts
+    private Long line;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductImportResponse {
+
+    private Long rows;
+    private Long accepted;
+    private Long rejected;
+    // Accepted rows merged into products; rows repeating a SKU collapse into one
+    private Long inserted;
+    private Long updated;
+    private Long elapsedMillis;
+    // First catalog.import.max-reported-rejections rejected rows
+    private List<ProductImportRejection> rejections;
+}
@@ -14,4 +14,6 @@ public class ProductListResponse {
     private Integer code;
     private String status;
     private List<ProductResponse> data;
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
 }
@@ -0,0 +1,15 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductLookup {
+
+    // Found products in the order their ids were requested
+    private List<ProductResponse> items;
+    private List<Long> missingIds;
+}
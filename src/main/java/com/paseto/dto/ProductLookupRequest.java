@@ -0,0 +1,13 @@
+package com.paseto.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductLookupRequest {
+
+    @NotEmpty(message = "At least one product id is required")
+    private List<Long> ids;
+}
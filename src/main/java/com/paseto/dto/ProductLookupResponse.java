@@ -0,0 +1,19 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupResponse {
+
+    private Integer code;
+    private String status;
+    private List<ProductResponse> data;
+    // Requested ids with no product (deleted or never existed)
+    private List<Long> missingIds;
+}
@@ -0,0 +1,14 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+}
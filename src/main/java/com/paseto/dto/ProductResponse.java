@@ -20,6 +20,7 @@ public class ProductResponse {
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public static ProductResponse fromEntity(com.paseto.entity.Product product) {
         return new ProductResponse(
@@ -32,7 +33,8 @@ public class ProductResponse {
             product.getSku(),
             product.getActive(),
             product.getCreatedAt(),
-            product.getUpdatedAt()
+            product.getUpdatedAt(),
+            product.getVersion()
         );
     }
 }
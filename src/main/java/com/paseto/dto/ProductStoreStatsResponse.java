@@ -0,0 +1,24 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStoreStatsResponse {
+
+    private Boolean ready;
+    private Long products;
+    // Rows left behind by updates and deletes until the next compaction
+    private Long deadRows;
+    private Long rowBytes;
+    private Long textBytes;
+    // Id index, the only part of the store on the heap
+    private Long indexHeapBytes;
+    // Allocated native memory, including room to grow
+    private Long offHeapBytes;
+    // The same live products as ProductResponse objects in a map by id
+    private Long estimatedHeapBytes;
+}
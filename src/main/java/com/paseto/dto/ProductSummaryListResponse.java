@@ -0,0 +1,19 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryListResponse {
+
+    private Integer code;
+    private String status;
+    private List<ProductSummaryResponse> data;
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Product as shown in listings: every field except the long description.
+ */
+@Data
+@AllArgsConstructor
+public class ProductSummaryResponse {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String imageUrl;
+    private String sku;
+    private Boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
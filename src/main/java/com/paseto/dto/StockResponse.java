@@ -0,0 +1,13 @@
+package com.paseto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockResponse {
+
+    private Long productId;
+    // Units reserved or released by this request
+    private Integer quantity;
+}
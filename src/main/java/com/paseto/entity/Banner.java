@@ -50,4 +50,9 @@ public class Banner {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Optimistic lock version, matched against If-Match on update; seeded rows start at 0
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -22,7 +22,9 @@ import java.time.LocalDateTime;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: one nextval covers 50 ids, so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -46,7 +48,8 @@ public class Product {
     @Column(length = 500)
     private String imageUrl;
 
-    @Column(length = 100)
+    // Unique (several NULLs allowed); also idx_products_sku_unique in V9
+    @Column(length = 100, unique = true)
     private String sku;
 
     private Boolean active = true;
@@ -58,4 +61,10 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Bumped on every write; clients send it back in If-Match to reject stale updates.
+    // The column default covers rows written by plain SQL (seed scripts, CSV import)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -0,0 +1,28 @@
+package com.paseto.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a deleted product, so delta sync can tell clients to
+ * drop it. Written in the deleting transaction.
+ */
+@Entity
+@Table(name = "product_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTombstone {
+
+    // Product ids come from a sequence and are never reused
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -42,12 +42,21 @@ public class RefreshToken {
     @Column(name = "issued_at", nullable = false)
     private LocalDateTime issuedAt;
 
-    @Column(name = "device_info", length = 255)
-    private String deviceInfo;
+    // Id in user_agents instead of the raw User-Agent string
+    @Column(name = "user_agent_id")
+    private Integer userAgentId;
 
     @Column(name = "ip_address", length = 45)
     private String ipAddress;
 
+    // SHA-256 of user + device + IP; only set when sessions are reused per device
+    @Column(name = "device_fingerprint", length = 64, unique = true)
+    private String deviceFingerprint;
+
+    // Token ID this row held before its last in-place rotation, so a replay is still recognized
+    @Column(name = "previous_token_id", length = 255)
+    private String previousTokenId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,24 @@
+package com.paseto.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dictionary of distinct User-Agent strings, referenced by id from session rows.
+ */
+@Entity
+@Table(name = "user_agents")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAgent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_agent", nullable = false, unique = true, length = 255)
+    private String userAgent;
+}
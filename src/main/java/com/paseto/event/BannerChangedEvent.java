@@ -0,0 +1,27 @@
+package com.paseto.event;
+
+/**
+ * Published by BannerService after a banner is created, updated or deleted.
+ *
+ * @param bannerId changed banner
+ */
+public record BannerChangedEvent(Type type, Long bannerId) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static BannerChangedEvent created(Long bannerId) {
+        return new BannerChangedEvent(Type.CREATED, bannerId);
+    }
+
+    public static BannerChangedEvent updated(Long bannerId) {
+        return new BannerChangedEvent(Type.UPDATED, bannerId);
+    }
+
+    public static BannerChangedEvent deleted(Long bannerId) {
+        return new BannerChangedEvent(Type.DELETED, bannerId);
+    }
+}
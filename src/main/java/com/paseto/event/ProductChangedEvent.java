@@ -0,0 +1,44 @@
+package com.paseto.event;
+
+import com.paseto.dto.ProductResponse;
+
+/**
+ * Published by ProductService after a product is created, updated or deleted,
+ * and by ProductStockService after its stock moves.
+ * In-memory views of the catalog (search index, caches) listen to stay current.
+ *
+ * @param productId changed product; null for bulk changes
+ * @param product state after the change; null for deletes, stock and bulk changes
+ */
+public record ProductChangedEvent(Type type, Long productId, ProductResponse product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // Only the stock column moved (reservations); text views have nothing to update
+        STOCK,
+        // Many products changed at once (CSV import); listeners reload instead of applying one row
+        BULK
+    }
+
+    public static ProductChangedEvent created(ProductResponse product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId) {
+        return new ProductChangedEvent(Type.STOCK, productId, null);
+    }
+
+    public static ProductChangedEvent bulk() {
+        return new ProductChangedEvent(Type.BULK, null, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.paseto.exception;
+
+/**
+ * A reservation asked for more units than the product has left.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.paseto.exception;
+
+/**
+ * A conditional request (If-Match) no longer matches the stored resource.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.paseto.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse banner reads, mixed into {@link BannerRepository}.
+ */
+public interface BannerFieldsRepository {
+
+    /**
+     * Banners in display order, all of them or only those with the given active
+     * flag, with only the given attributes read, keyed by attribute name.
+     */
+    List<Map<String, Object>> findFields(Boolean active, Set<String> attributes);
+}
@@ -0,0 +1,40 @@
+package com.paseto.repository;
+
+import com.paseto.entity.Banner;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria implementation of {@link BannerFieldsRepository}.
+ */
+class BannerFieldsRepositoryImpl implements BannerFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Boolean active, Set<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Banner> b = query.from(Banner.class);
+        query.multiselect(FieldProjection.select(b, attributes));
+        if (active != null) {
+            query.where(cb.equal(b.get("active"), active));
+        }
+        query.orderBy(cb.asc(b.get("displayOrder")));
+
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .map(tuple -> FieldProjection.toMap(tuple, attributes))
+                .toList();
+    }
+}
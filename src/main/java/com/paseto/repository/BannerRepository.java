@@ -1,15 +1,56 @@
 package com.paseto.repository;
 
+import com.paseto.dto.BannerRequest;
+import com.paseto.dto.BannerResponse;
 import com.paseto.entity.Banner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BannerRepository extends JpaRepository<Banner, Long> {
+public interface BannerRepository extends JpaRepository<Banner, Long>, BannerFieldsRepository {
 
-    List<Banner> findByActiveOrderByDisplayOrderAsc(Boolean active);
+    // Read paths select straight into DTOs: no managed entities, no dirty-checking snapshots
+    String BANNER_RESPONSE = "new com.paseto.dto.BannerResponse(b.id, b.title, b.description, b.imageUrl, " +
+            "b.linkUrl, b.displayOrder, b.active, b.createdAt, b.updatedAt, b.version)";
 
-    List<Banner> findAllByOrderByDisplayOrderAsc();
+    @Query("SELECT " + BANNER_RESPONSE + " FROM Banner b WHERE b.active = :active ORDER BY b.displayOrder ASC")
+    List<BannerResponse> findResponsesByActive(@Param("active") Boolean active);
+
+    @Query("SELECT " + BANNER_RESPONSE + " FROM Banner b ORDER BY b.displayOrder ASC")
+    List<BannerResponse> findAllResponses();
+
+    @Query("SELECT " + BANNER_RESPONSE + " FROM Banner b WHERE b.id = :id")
+    Optional<BannerResponse> findResponseById(@Param("id") Long id);
+
+    // If-Match updates, same shape as ProductRepository: one statement, RETURNING on PostgreSQL
+
+    @Query(value = "UPDATE banners SET title = :#{#request.title}, description = :#{#request.description}, " +
+            "image_url = :#{#request.imageUrl}, link_url = :#{#request.linkUrl}, " +
+            "display_order = :#{#request.displayOrder}, active = :#{#request.active}, " +
+            "updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND (CAST(:version AS bigint) IS NULL OR version = :version) " +
+            "RETURNING *",
+            nativeQuery = true)
+    Optional<Banner> updateReturning(@Param("id") Long id,
+                                     @Param("version") Long version,
+                                     @Param("request") BannerRequest request,
+                                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Banner b SET b.title = :#{#request.title}, b.description = :#{#request.description}, " +
+            "b.imageUrl = :#{#request.imageUrl}, b.linkUrl = :#{#request.linkUrl}, " +
+            "b.displayOrder = :#{#request.displayOrder}, b.active = :#{#request.active}, " +
+            "b.updatedAt = :now, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND (:version IS NULL OR b.version = :version)")
+    int updateIfVersion(@Param("id") Long id,
+                        @Param("version") Long version,
+                        @Param("request") BannerRequest request,
+                        @Param("now") LocalDateTime now);
 }
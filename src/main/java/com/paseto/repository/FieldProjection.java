@@ -0,0 +1,35 @@
+package com.paseto.repository;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Select lists for sparse fieldsets: only the named attributes are read, and
+ * each row comes back as a map from attribute name to value in selection order.
+ */
+final class FieldProjection {
+
+    private FieldProjection() {
+    }
+
+    static List<Selection<?>> select(Root<?> root, Collection<String> attributes) {
+        return attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList();
+    }
+
+    // Mutable, so callers can drop columns they only selected for a cursor
+    static Map<String, Object> toMap(Tuple tuple, Collection<String> attributes) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            row.put(attribute, tuple.get(attribute));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,30 @@
+package com.paseto.repository;
+
+import com.paseto.dto.ProductFilter;
+import com.paseto.dto.ProductResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dynamic product queries, mixed into {@link ProductRepository}.
+ */
+public interface ProductFilterRepository {
+
+    /**
+     * Products matching every set field of {@code filter} in {@code sort} order,
+     * starting after the row ({@code afterKey}, {@code afterId}); both null for the
+     * first page.
+     */
+    List<ProductResponse> findFiltered(ProductFilter filter, ProductSort sort,
+                                       Comparable<?> afterKey, Long afterId, int limit);
+
+    /**
+     * Same rows as {@link #findFiltered} with only the given attributes read, keyed
+     * by attribute name in the order of {@code attributes}.
+     */
+    List<Map<String, Object>> findFilteredFields(ProductFilter filter, ProductSort sort,
+                                                 Comparable<?> afterKey, Long afterId, int limit,
+                                                 Set<String> attributes);
+}
@@ -0,0 +1,119 @@
+package com.paseto.repository;
+
+import com.paseto.dto.ProductFilter;
+import com.paseto.dto.ProductResponse;
+import com.paseto.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria implementation of {@link ProductFilterRepository}. Only the filters
+ * that are set become predicates, and every value is a bound parameter, so each
+ * filter combination is its own cached plan. Each filter is a plain comparison
+ * on an indexed column (price, stock, active, sku).
+ */
+class ProductFilterRepositoryImpl implements ProductFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductResponse> findFiltered(ProductFilter filter, ProductSort sort,
+                                              Comparable<?> afterKey, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+        Root<Product> p = query.from(Product.class);
+        query.select(cb.construct(ProductResponse.class,
+                p.get("id"), p.get("name"), p.get("description"), p.get("price"), p.get("stock"),
+                p.get("imageUrl"), p.get("sku"), p.get("active"), p.get("createdAt"), p.get("updatedAt"),
+                p.get("version")));
+        query.where(where(cb, p, filter, sort, afterKey, afterId));
+        query.orderBy(orderBy(cb, p, sort));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFilteredFields(ProductFilter filter, ProductSort sort,
+                                                        Comparable<?> afterKey, Long afterId, int limit,
+                                                        Set<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> p = query.from(Product.class);
+        query.multiselect(FieldProjection.select(p, attributes));
+        query.where(where(cb, p, filter, sort, afterKey, afterId));
+        query.orderBy(orderBy(cb, p, sort));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> FieldProjection.toMap(tuple, attributes))
+                .toList();
+    }
+
+    private static Predicate[] where(CriteriaBuilder cb, Root<Product> p, ProductFilter filter,
+                                     ProductSort sort, Comparable<?> afterKey, Long afterId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(p.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(p.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getInStock() != null) {
+            predicates.add(filter.getInStock()
+                    ? cb.greaterThan(p.get("stock"), 0)
+                    : cb.lessThanOrEqualTo(p.get("stock"), 0));
+        }
+        if (filter.getActive() != null) {
+            predicates.add(cb.equal(p.get("active"), filter.getActive()));
+        }
+        if (filter.getSku() != null) {
+            predicates.add(cb.equal(p.get("sku"), filter.getSku()));
+        }
+        if (afterId != null) {
+            Path<Long> id = p.get("id");
+            predicates.add(switch (sort) {
+                case NEWEST -> after(cb, p.get("createdAt"), (LocalDateTime) afterKey, id, afterId, true);
+                case PRICE_ASC -> after(cb, p.get("price"), (BigDecimal) afterKey, id, afterId, false);
+                case PRICE_DESC -> after(cb, p.get("price"), (BigDecimal) afterKey, id, afterId, true);
+            });
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static List<Order> orderBy(CriteriaBuilder cb, Root<Product> p, ProductSort sort) {
+        return sort.descending()
+                ? List.of(cb.desc(p.get(sort.attribute())), cb.desc(p.get("id")))
+                : List.of(cb.asc(p.get(sort.attribute())), cb.asc(p.get("id")));
+    }
+
+    // Rows past (key, id) in sort order. The inclusive bound on the key alone gives
+    // the index a range start; the OR breaks ties by id.
+    private static <Y extends Comparable<? super Y>> Predicate after(
+            CriteriaBuilder cb, Path<Y> key, Y value, Path<Long> id, Long lastId, boolean descending) {
+        if (descending) {
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(id, lastId)));
+        }
+        return cb.and(cb.greaterThanOrEqualTo(key, value),
+                cb.or(cb.greaterThan(key, value), cb.greaterThan(id, lastId)));
+    }
+}
@@ -1,15 +1,165 @@
 package com.paseto.repository;
 
+import com.paseto.dto.ProductRequest;
+import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductSummaryResponse;
 import com.paseto.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductFilterRepository {
 
     List<Product> findByActive(Boolean active);
 
-    List<Product> findByNameContainingIgnoreCase(String name);
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // Read paths select straight into DTOs: no managed entities, no dirty-checking snapshots
+
+    String PRODUCT_RESPONSE = "new com.paseto.dto.ProductResponse(p.id, p.name, p.description, p.price, " +
+            "p.stock, p.imageUrl, p.sku, p.active, p.createdAt, p.updatedAt, p.version)";
+
+    // Everything but the description, so listings stay within idx_products_created_id_summary
+    String PRODUCT_SUMMARY = "new com.paseto.dto.ProductSummaryResponse(p.id, p.name, p.price, " +
+            "p.stock, p.imageUrl, p.sku, p.active, p.createdAt, p.updatedAt)";
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p")
+    List<ProductResponse> findAllResponses();
+
+    // Called outside a service transaction by the product cache loader
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p WHERE p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
+
+    // Both called outside a service transaction by the product cache's bulk loader
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // One array parameter however many ids: a single statement text, and plan, for every lookup size
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT * FROM products WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Product> findAllByIdArray(@Param("ids") Long[] ids);
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p " +
+            "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<ProductResponse> findResponsesByNameContaining(@Param("name") String name);
+
+    // Keyset pagination, newest first. The created_at <= bound gives the index a range
+    // start, so a page costs the same no matter how deep the cursor is.
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findFirstPage(Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p " +
+            "WHERE p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_SUMMARY + " FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummaryResponse> findSummaryFirstPage(Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_SUMMARY + " FROM Product p " +
+            "WHERE p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummaryResponse> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> searchFirstPage(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> searchPageAfter(@Param("name") String name,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    // Delta sync: keyset pages by (updated_at, id), oldest first, never past :until
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p WHERE p.updatedAt <= :until " +
+            "ORDER BY p.updatedAt ASC, p.id ASC")
+    List<ProductResponse> findChangedFirstPage(@Param("until") LocalDateTime until, Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_RESPONSE + " FROM Product p WHERE p.updatedAt >= :updatedAt " +
+            "AND (p.updatedAt > :updatedAt OR p.id > :id) AND p.updatedAt <= :until " +
+            "ORDER BY p.updatedAt ASC, p.id ASC")
+    List<ProductResponse> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                           @Param("id") Long id,
+                                           @Param("until") LocalDateTime until,
+                                           Pageable pageable);
+
+    // Conditional writes for If-Match: one UPDATE, no read before it. A null version
+    // overwrites unconditionally. PostgreSQL hands the new row back through RETURNING.
+
+    @Query(value = "UPDATE products SET name = :#{#request.name}, description = :#{#request.description}, " +
+            "price = :#{#request.price}, stock = :#{#request.stock}, image_url = :#{#request.imageUrl}, " +
+            "sku = :#{#request.sku}, active = :#{#request.active}, updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND (CAST(:version AS bigint) IS NULL OR version = :version) " +
+            "RETURNING *",
+            nativeQuery = true)
+    Optional<Product> updateReturning(@Param("id") Long id,
+                                      @Param("version") Long version,
+                                      @Param("request") ProductRequest request,
+                                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.name = :#{#request.name}, p.description = :#{#request.description}, " +
+            "p.price = :#{#request.price}, p.stock = :#{#request.stock}, p.imageUrl = :#{#request.imageUrl}, " +
+            "p.sku = :#{#request.sku}, p.active = :#{#request.active}, p.updatedAt = :now, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND (:version IS NULL OR p.version = :version)")
+    int updateIfVersion(@Param("id") Long id,
+                        @Param("version") Long version,
+                        @Param("request") ProductRequest request,
+                        @Param("now") LocalDateTime now);
+
+    // Stock moves in one guarded statement, so concurrent orders never oversell
+    // and need neither a read nor a lock first
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = :now, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.updatedAt = :now, p.version = p.version + 1 " +
+            "WHERE p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COALESCE(p.sku, '') FROM Product p WHERE p.id = :id")
+    Optional<String> findSkuById(@Param("id") Long id);
+
+    // Full-text search over the stored search_vector column (PostgreSQL only), best match first
+    @Query(value = "SELECT p.* FROM products p, websearch_to_tsquery('english', :query) q " +
+            "WHERE p.search_vector @@ q " +
+            "ORDER BY ts_rank(p.search_vector, q) DESC, p.id DESC " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Product> fullTextSearch(@Param("query") String query,
+                                 @Param("limit") int limit,
+                                 @Param("offset") int offset);
+
+    // Portable fallback with the same paging contract, matching on name only
+    @Query(value = "SELECT * FROM products WHERE LOWER(name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "ORDER BY id DESC " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Product> nameContainsSearch(@Param("query") String query,
+                                     @Param("limit") int limit,
+                                     @Param("offset") int offset);
 }
@@ -0,0 +1,59 @@
+package com.paseto.repository;
+
+import com.paseto.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Orders for filtered product queries. Each sorts by one indexed column with the
+ * id as tie-breaker, so the pair is unique and pages can continue from it.
+ */
+public enum ProductSort {
+    NEWEST("createdAt", true),
+    PRICE_ASC("price", false),
+    PRICE_DESC("price", true);
+
+    private final String attribute;
+    private final boolean descending;
+
+    ProductSort(String attribute, boolean descending) {
+        this.attribute = attribute;
+        this.descending = descending;
+    }
+
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return ProductSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    /**
+     * Sort key of a row, as carried in the cursor of the page it ends.
+     */
+    public Comparable<?> keyOf(ProductResponse product) {
+        return this == NEWEST ? product.getCreatedAt() : product.getPrice();
+    }
+
+    public String format(Comparable<?> key) {
+        return key instanceof BigDecimal price ? price.toPlainString() : key.toString();
+    }
+
+    public Comparable<?> parse(String key) {
+        return this == NEWEST ? LocalDateTime.parse(key) : new BigDecimal(key);
+    }
+}
@@ -0,0 +1,34 @@
+package com.paseto.repository;
+
+import com.paseto.entity.ProductTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    // One statement for any number of deletes; must run before the rows are deleted
+    @Modifying
+    @Query(value = "INSERT INTO product_tombstones (product_id, deleted_at) " +
+            "SELECT id, :deletedAt FROM products WHERE id IN (:ids)",
+            nativeQuery = true)
+    int recordDeletes(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Keyset pages by (deleted_at, product_id), oldest first, never past :until
+
+    @Query("SELECT t FROM ProductTombstone t WHERE t.deletedAt >= :deletedAt " +
+            "AND (t.deletedAt > :deletedAt OR t.productId > :productId) AND t.deletedAt <= :until " +
+            "ORDER BY t.deletedAt ASC, t.productId ASC")
+    List<ProductTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                            @Param("productId") Long productId,
+                                            @Param("until") LocalDateTime until,
+                                            Pageable pageable);
+}
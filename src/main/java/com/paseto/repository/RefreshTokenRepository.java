@@ -2,6 +2,9 @@ package com.paseto.repository;
 
 import com.paseto.entity.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -15,6 +18,10 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     Optional<RefreshToken> findByTokenId(String tokenId);
 
+    Optional<RefreshToken> findByPreviousTokenId(String previousTokenId);
+
+    Optional<RefreshToken> findByDeviceFingerprint(String deviceFingerprint);
+
     List<RefreshToken> findByUserId(Long userId);
 
     List<RefreshToken> findByUserIdAndRevokedFalse(Long userId);
@@ -26,4 +33,52 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     boolean existsByToken(String token);
 
     boolean existsByTokenId(String tokenId);
+
+    /**
+     * Revokes every active session of the user except the newest {@code keep} ones,
+     * in a single statement and without loading the rows into memory.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE refresh_tokens SET revoked = true, revoked_at = :now, updated_at = :now
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE user_id = :userId AND revoked = false AND expires_at > :now
+                ORDER BY issued_at DESC, id DESC
+                OFFSET :keep ROWS
+            )
+            """, nativeQuery = true)
+    int revokeOldestActiveSessions(@Param("userId") Long userId,
+                                   @Param("keep") int keep,
+                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Inserts the session for a device fingerprint, or rotates the token of the
+     * existing row in place (PostgreSQL only).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO refresh_tokens (token_id, user_id, token, revoked, expired, expires_at, issued_at,
+                                        user_agent_id, ip_address, device_fingerprint, created_at, updated_at)
+            VALUES (:tokenId, :userId, :token, false, false, :expiresAt, :issuedAt,
+                    :userAgentId, :ipAddress, :fingerprint, :issuedAt, :issuedAt)
+            ON CONFLICT (device_fingerprint) DO UPDATE SET
+                previous_token_id = refresh_tokens.token_id,
+                token_id = EXCLUDED.token_id,
+                token = EXCLUDED.token,
+                revoked = false,
+                revoked_at = NULL,
+                expired = false,
+                expires_at = EXCLUDED.expires_at,
+                issued_at = EXCLUDED.issued_at,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsertDeviceSession(@Param("tokenId") String tokenId,
+                            @Param("userId") Long userId,
+                            @Param("token") String token,
+                            @Param("issuedAt") LocalDateTime issuedAt,
+                            @Param("expiresAt") LocalDateTime expiresAt,
+                            @Param("userAgentId") Integer userAgentId,
+                            @Param("ipAddress") String ipAddress,
+                            @Param("fingerprint") String fingerprint);
 }
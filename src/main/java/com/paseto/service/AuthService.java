@@ -1,5 +1,6 @@
 package com.paseto.service;
 
+import com.paseto.config.DatabasePlatform;
 import com.paseto.dto.*;
 import com.paseto.entity.RefreshToken;
 import com.paseto.entity.User;
@@ -7,12 +8,19 @@ import com.paseto.repository.RefreshTokenRepository;
 import com.paseto.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
 
 @Slf4j
 @Service
@@ -23,6 +31,19 @@ public class AuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasetoV4Service pasetoV4Service;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final DatabasePlatform databasePlatform;
+    private final UserAgentDictionary userAgentDictionary;
+    private final RefreshCoalescer refreshCoalescer;
+
+    // Maximum active sessions per user; 0 or less disables the cap
+    @Value("${paseto.max-sessions-per-user:10}")
+    private int maxSessionsPerUser;
+
+    // Reuse one session row per user + device + IP instead of inserting a row per login
+    @Value("${paseto.session-reuse-per-device:false}")
+    private boolean sessionReusePerDevice;
+
+    private record IssuedSession(String accessToken, RefreshToken session) {}
 
     @Transactional
     public ApiResponse<AuthDataResponse> login(LoginRequest request, String deviceInfo, String ipAddress) {
@@ -99,52 +120,9 @@ public class AuthService {
         // Validate refresh token
         PasetoV4Service.TokenClaims claims = pasetoV4Service.validateRefreshToken(request.getRefreshToken());
 
-        // Find refresh token in database
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenId(claims.jti())
-                .orElseThrow(() -> new IllegalArgumentException("Refresh token not found"));
-
-        // Check if token is active
-        if (!refreshToken.isActive()) {
-            throw new IllegalArgumentException("Refresh token has been revoked or expired");
-        }
-
-        // Get user
-        User user = userRepository.findById(refreshToken.getUserId())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        // Detect token reuse attack
-        if (!refreshToken.getToken().equals(request.getRefreshToken())) {
-            log.warn("Possible token reuse attack detected for user: {}", user.getUsername());
-            // Revoke all tokens for this user
-            revokeAllUserTokens(user.getId());
-            throw new IllegalArgumentException("Token reuse detected. All tokens have been revoked.");
-        }
-
-        // Revoke old refresh token (rotation)
-        refreshToken.revoke();
-        refreshTokenRepository.save(refreshToken);
-
-        // Create new tokens
-        String newAccessToken = pasetoV4Service.generateAccessToken(user.getId(), user.getUsername());
-        String newTokenId = pasetoV4Service.generateTokenId();
-        String newRefreshToken = pasetoV4Service.generateRefreshToken(user.getId(), user.getUsername(), newTokenId);
-
-        // Save new refresh token to database
-        RefreshToken newRefreshTokenEntity = new RefreshToken();
-        newRefreshTokenEntity.setTokenId(newTokenId);
-        newRefreshTokenEntity.setUserId(user.getId());
-        newRefreshTokenEntity.setToken(newRefreshToken);
-        newRefreshTokenEntity.setIssuedAt(LocalDateTime.now());
-        newRefreshTokenEntity.setExpiresAt(LocalDateTime.now().plusDays(7));
-        newRefreshTokenEntity.setDeviceInfo(request.getDeviceInfo());
-        newRefreshTokenEntity.setIpAddress(request.getIpAddress());
-        refreshTokenRepository.save(newRefreshTokenEntity);
-
-        log.info("Token refreshed for user: {}", user.getUsername());
-
-        // Build response data
-        UserDataResponse userData = UserDataResponse.fromEntity(user);
-        AuthDataResponse data = new AuthDataResponse(newAccessToken, newRefreshToken, "Bearer", 900L, userData);
+        // Concurrent or retried refreshes of the same token share a single rotation
+        AuthDataResponse data = refreshCoalescer.execute(claims.jti(), request.getRefreshToken(),
+                () -> rotateRefreshToken(claims, request));
 
         return ApiResponse.success("Token refreshed successfully", data);
     }
@@ -211,31 +189,194 @@ public class AuthService {
 
     // ==================== PRIVATE METHODS ====================
 
+    private AuthDataResponse rotateRefreshToken(PasetoV4Service.TokenClaims claims, RefreshTokenRequest request) {
+        // Find refresh token in database; a device session rotated in place still
+        // resolves its previous token ID, so replaying that token reaches the reuse check
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenId(claims.jti())
+                .or(() -> refreshTokenRepository.findByPreviousTokenId(claims.jti()))
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token not found"));
+
+        // Check if token is active
+        if (!refreshToken.isActive()) {
+            throw new IllegalArgumentException("Refresh token has been revoked or expired");
+        }
+
+        // Get user
+        User user = userRepository.findById(refreshToken.getUserId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        // Detect token reuse attack
+        if (!refreshToken.getToken().equals(request.getRefreshToken())) {
+            log.warn("Possible token reuse attack detected for user: {}", user.getUsername());
+            // Revoke all tokens for this user
+            revokeAllUserTokens(user.getId());
+            throw new IllegalArgumentException("Token reuse detected. All tokens have been revoked.");
+        }
+
+        // Create new tokens
+        IssuedSession issued = issueSession(user, request.getDeviceInfo(), request.getIpAddress());
+        RefreshToken newSession = issued.session();
+
+        if (sessionReusePerDevice && refreshToken.getDeviceFingerprint() != null) {
+            // Device session: rotate the token in place, keeping the old token ID for reuse detection
+            refreshToken.setPreviousTokenId(refreshToken.getTokenId());
+            refreshToken.setTokenId(newSession.getTokenId());
+            refreshToken.setToken(newSession.getToken());
+            refreshToken.setIssuedAt(newSession.getIssuedAt());
+            refreshToken.setExpiresAt(newSession.getExpiresAt());
+            refreshTokenRepository.save(refreshToken);
+        } else {
+            // Revoke old refresh token (rotation)
+            refreshToken.revoke();
+            refreshTokenRepository.save(refreshToken);
+
+            // Save new refresh token to database
+            newSession.setDeviceFingerprint(null);
+            refreshTokenRepository.save(newSession);
+        }
+
+        log.info("Token refreshed for user: {}", user.getUsername());
+
+        // Build response data
+        UserDataResponse userData = UserDataResponse.fromEntity(user);
+        return new AuthDataResponse(issued.accessToken(), newSession.getToken(), "Bearer", 900L, userData);
+    }
+
     private ApiResponse<AuthDataResponse> createAuthResponse(User user, String deviceInfo, String ipAddress, String message) {
-        // Generate access token (15 minutes)
-        String accessToken = pasetoV4Service.generateAccessToken(user.getId(), user.getUsername());
+        // Serialize concurrent logins of the same user so the session cap holds
+        if (maxSessionsPerUser > 0) {
+            userRepository.lockById(user.getId());
+        }
 
-        // Generate refresh token ID and token (7 days)
-        String tokenId = pasetoV4Service.generateTokenId();
-        String refreshToken = pasetoV4Service.generateRefreshToken(user.getId(), user.getUsername(), tokenId);
+        // Generate access token (15 minutes) and refresh token session (7 days)
+        IssuedSession issued = issueSession(user, deviceInfo, ipAddress);
 
         // Save refresh token to database
-        RefreshToken refreshTokenEntity = new RefreshToken();
-        refreshTokenEntity.setTokenId(tokenId);
-        refreshTokenEntity.setUserId(user.getId());
-        refreshTokenEntity.setToken(refreshToken);
-        refreshTokenEntity.setIssuedAt(LocalDateTime.now());
-        refreshTokenEntity.setExpiresAt(LocalDateTime.now().plusDays(7));
-        refreshTokenEntity.setDeviceInfo(deviceInfo);
-        refreshTokenEntity.setIpAddress(ipAddress);
-        refreshTokenRepository.save(refreshTokenEntity);
+        if (sessionReusePerDevice) {
+            saveDeviceSession(issued.session());
+        } else {
+            refreshTokenRepository.save(issued.session());
+        }
+
+        enforceSessionLimit(user.getId());
 
         log.info("User authenticated: {}", user.getUsername());
 
         // Build response data
         UserDataResponse userData = UserDataResponse.fromEntity(user);
-        AuthDataResponse data = new AuthDataResponse(accessToken, refreshToken, "Bearer", 900L, userData);
+        AuthDataResponse data = new AuthDataResponse(
+                issued.accessToken(), issued.session().getToken(), "Bearer", 900L, userData);
 
         return ApiResponse.success(message, data);
     }
+
+    /**
+     * Mints the access token and prepares the refresh token session concurrently on
+     * virtual threads. The first failing subtask cancels the other and its exception
+     * is rethrown to the caller.
+     */
+    private IssuedSession issueSession(User user, String deviceInfo, String ipAddress) {
+        try (var scope = StructuredTaskScope.open()) {
+            Subtask<String> accessToken = scope.fork(
+                    () -> pasetoV4Service.generateAccessToken(user.getId(), user.getUsername()));
+            Subtask<RefreshToken> session = scope.fork(() -> prepareSession(user, deviceInfo, ipAddress));
+
+            // The dictionary lookup uses the request's transaction, so it stays on this thread
+            Integer userAgentId = userAgentDictionary.resolveId(deviceInfo);
+
+            scope.join();
+
+            RefreshToken prepared = session.get();
+            prepared.setUserAgentId(userAgentId);
+            return new IssuedSession(accessToken.get(), prepared);
+        } catch (StructuredTaskScope.FailedException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Token generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating tokens", e);
+        }
+    }
+
+    /**
+     * Generates the refresh token ID and signed token and builds the unsaved session row.
+     */
+    private RefreshToken prepareSession(User user, String deviceInfo, String ipAddress) {
+        String tokenId = pasetoV4Service.generateTokenId();
+        String token = pasetoV4Service.generateRefreshToken(user.getId(), user.getUsername(), tokenId);
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken session = new RefreshToken();
+        session.setTokenId(tokenId);
+        session.setUserId(user.getId());
+        session.setToken(token);
+        session.setIssuedAt(now);
+        session.setExpiresAt(now.plusDays(7));
+        session.setIpAddress(ipAddress);
+        if (sessionReusePerDevice) {
+            session.setDeviceFingerprint(deviceFingerprint(user.getId(), deviceInfo, ipAddress));
+        }
+        return session;
+    }
+
+    /**
+     * Stores the session of a user on a device, reusing the existing row for the
+     * same fingerprint. PostgreSQL does this atomically with INSERT ... ON CONFLICT;
+     * other databases fall back to a lookup followed by insert or update.
+     */
+    private void saveDeviceSession(RefreshToken prepared) {
+        if (databasePlatform.isPostgreSql()) {
+            refreshTokenRepository.upsertDeviceSession(
+                    prepared.getTokenId(), prepared.getUserId(), prepared.getToken(),
+                    prepared.getIssuedAt(), prepared.getExpiresAt(), prepared.getUserAgentId(),
+                    prepared.getIpAddress(), prepared.getDeviceFingerprint());
+            return;
+        }
+
+        RefreshToken session = refreshTokenRepository.findByDeviceFingerprint(prepared.getDeviceFingerprint())
+                .orElse(prepared);
+        if (session != prepared) {
+            // A replay of the token this login replaces is still caught as reuse
+            session.setPreviousTokenId(session.getTokenId());
+        }
+        session.setTokenId(prepared.getTokenId());
+        session.setUserId(prepared.getUserId());
+        session.setToken(prepared.getToken());
+        session.setRevoked(false);
+        session.setRevokedAt(null);
+        session.setExpired(false);
+        session.setIssuedAt(prepared.getIssuedAt());
+        session.setExpiresAt(prepared.getExpiresAt());
+        session.setUserAgentId(prepared.getUserAgentId());
+        session.setIpAddress(prepared.getIpAddress());
+        session.setDeviceFingerprint(prepared.getDeviceFingerprint());
+        refreshTokenRepository.save(session);
+    }
+
+    private String deviceFingerprint(Long userId, String deviceInfo, String ipAddress) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String source = userId + "|" + deviceInfo + "|" + ipAddress;
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Revokes the oldest active sessions of the user beyond the configured cap.
+     * Runs as one UPDATE, so no session rows are loaded into memory.
+     */
+    private void enforceSessionLimit(Long userId) {
+        if (maxSessionsPerUser <= 0) {
+            return;
+        }
+
+        int evicted = refreshTokenRepository.revokeOldestActiveSessions(userId, maxSessionsPerUser, LocalDateTime.now());
+        if (evicted > 0) {
+            log.info("Session cap reached for user {}: revoked {} oldest session(s)", userId, evicted);
+        }
+    }
 }
@@ -1,37 +1,62 @@
 package com.paseto.service;
 
+import com.paseto.config.DatabasePlatform;
 import com.paseto.dto.BannerRequest;
 import com.paseto.dto.BannerResponse;
 import com.paseto.entity.Banner;
+import com.paseto.event.BannerChangedEvent;
+import com.paseto.exception.PreconditionFailedException;
 import com.paseto.repository.BannerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class BannerService {
 
+    // JSON names of BannerResponse, which are also the entity's attribute names
+    private static final Set<String> BANNER_FIELDS = Set.of("id", "title", "description", "imageUrl", "linkUrl",
+            "displayOrder", "active", "createdAt", "updatedAt", "version");
+
     private final BannerRepository bannerRepository;
+    private final DatabasePlatform databasePlatform;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<BannerResponse> findAll() {
-        return bannerRepository.findAllByOrderByDisplayOrderAsc().stream()
-                .map(BannerResponse::fromEntity)
-                .collect(Collectors.toList());
+        return bannerRepository.findAllResponses();
     }
 
+    @Transactional(readOnly = true)
     public List<BannerResponse> findActive() {
-        return bannerRepository.findByActiveOrderByDisplayOrderAsc(true).stream()
-                .map(BannerResponse::fromEntity)
-                .collect(Collectors.toList());
+        return bannerRepository.findResponsesByActive(true);
+    }
+
+    /**
+     * Banners with only the requested fields; only their columns are read.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllFields(String fields) {
+        return bannerRepository.findFields(null, FieldSelection.parse(fields, BANNER_FIELDS));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findActiveFields(String fields) {
+        return bannerRepository.findFields(true, FieldSelection.parse(fields, BANNER_FIELDS));
     }
 
+    @Transactional(readOnly = true)
     public BannerResponse findById(Long id) {
-        Banner banner = bannerRepository.findById(id)
+        return bannerRepository.findResponseById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Banner not found"));
-        return BannerResponse.fromEntity(banner);
     }
 
     public BannerResponse create(BannerRequest request) {
@@ -44,22 +69,33 @@ public class BannerService {
         banner.setActive(request.getActive());
 
         banner = bannerRepository.save(banner);
+        eventPublisher.publishEvent(BannerChangedEvent.created(banner.getId()));
         return BannerResponse.fromEntity(banner);
     }
 
-    public BannerResponse update(Long id, BannerRequest request) {
-        Banner banner = bannerRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Banner not found"));
-
-        banner.setTitle(request.getTitle());
-        banner.setDescription(request.getDescription());
-        banner.setImageUrl(request.getImageUrl());
-        banner.setLinkUrl(request.getLinkUrl());
-        banner.setDisplayOrder(request.getDisplayOrder());
-        banner.setActive(request.getActive());
+    /**
+     * Overwrites a banner in a single conditional UPDATE, as {@link ProductService#update} does.
+     *
+     * @param expectedVersion version from If-Match, or null for an unconditional update
+     * @throws PreconditionFailedException if the banner moved past {@code expectedVersion}
+     */
+    @Transactional
+    public BannerResponse update(Long id, BannerRequest request, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<BannerResponse> updated;
+        if (databasePlatform.isPostgreSql()) {
+            updated = bannerRepository.updateReturning(id, expectedVersion, request, now).map(BannerResponse::fromEntity);
+        } else {
+            updated = bannerRepository.updateIfVersion(id, expectedVersion, request, now) == 0
+                    ? Optional.empty()
+                    : bannerRepository.findResponseById(id);
+        }
 
-        banner = bannerRepository.save(banner);
-        return BannerResponse.fromEntity(banner);
+        BannerResponse response = updated.orElseThrow(() -> expectedVersion != null && bannerRepository.existsById(id)
+                ? new PreconditionFailedException("Banner was modified since version " + expectedVersion)
+                : new IllegalArgumentException("Banner not found"));
+        eventPublisher.publishEvent(BannerChangedEvent.updated(id));
+        return response;
     }
 
     public void delete(Long id) {
@@ -67,5 +103,6 @@ public class BannerService {
             throw new IllegalArgumentException("Banner not found");
         }
         bannerRepository.deleteById(id);
+        eventPublisher.publishEvent(BannerChangedEvent.deleted(id));
     }
 }
@@ -0,0 +1,82 @@
+package com.paseto.service;
+
+import com.paseto.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide version. Lists and search results use it as their ETag, so an
+ * unchanged catalog can be answered with 304 without running the list query.
+ *
+ * <p>Kept in the one-row {@code catalog_version} table. Every product write
+ * calls {@link #bump()} in its own transaction, so the new value becomes
+ * visible exactly when the write commits, and commits on any instance can only
+ * move it forward. The row lock makes concurrent catalog writes commit one
+ * after the other; writers bump as their last statement to hold it briefly.
+ * The row is read at most once per catalog.version.max-age, and a change
+ * committed through this instance forces a fresh read. Direct SQL that skips
+ * the bump is not seen.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final String READ_SQL = "SELECT version FROM catalog_version WHERE id = 1";
+    private static final String BUMP_SQL = "UPDATE catalog_version SET version = version + 1 WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxAgeNanos;
+
+    // Bumped by every committed change of this instance; a read taken before it is stale
+    private final AtomicLong localChanges = new AtomicLong();
+    private volatile Observed observed;
+
+    private record Observed(long version, long localChanges, long readAtNanos) {}
+
+    public CatalogVersion(
+            JdbcTemplate jdbcTemplate,
+            @Value("${catalog.version.max-age:1s}") Duration maxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public long current() {
+        long changes = localChanges.get();
+        Observed last = observed;
+        if (last != null && last.localChanges() == changes && System.nanoTime() - last.readAtNanos() < maxAgeNanos) {
+            return last.version();
+        }
+
+        Observed fresh = new Observed(read(), changes, System.nanoTime());
+        observed = fresh;
+        return fresh.version();
+    }
+
+    /**
+     * Moves the version forward. Must run in the transaction of the product write.
+     */
+    public void bump() {
+        jdbcTemplate.update(BUMP_SQL);
+    }
+
+    // Runs after the in-memory views (search index, cache) have applied the change
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        localChanges.incrementAndGet();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private long read() {
+        List<Long> versions = jdbcTemplate.queryForList(READ_SQL, Long.class);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+}
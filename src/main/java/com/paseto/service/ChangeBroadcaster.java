@@ -0,0 +1,275 @@
+package com.paseto.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paseto.event.BannerChangedEvent;
+import com.paseto.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed product and banner changes to Server-Sent Events subscribers,
+ * so clients refetch only when something changed instead of polling.
+ *
+ * <p>Each change is rendered to JSON once and kept in a shared ring of the last
+ * catalog.events.replay-size notices; subscribers get a reference in their own
+ * bounded queue and a virtual thread that writes it out. A subscriber whose
+ * queue is full is disconnected rather than slowing anyone else down; its
+ * EventSource reconnects with Last-Event-ID and catches up from the ring, or is
+ * told to resync when the ring has moved past it. Event ids are
+ * {@code <start>-<sequence>}, where start is when this broadcaster was created,
+ * so an id handed out before a restart or by another instance also asks for a
+ * resync instead of replaying unrelated notices. Stock moves are coalesced
+ * into one notice per catalog.events.stock-interval. Only changes made through
+ * this instance are seen.
+ */
+@Slf4j
+@Component
+public class ChangeBroadcaster {
+
+    public enum Topic {
+        PRODUCTS, BANNERS
+    }
+
+    // Pre-rendered SSE event, shared by every queue it is offered to
+    record Notice(long id, Topic topic, String name, String data) {}
+
+    record Change(String type, Long id) {}
+
+    record StockChange(String type, List<Long> ids) {}
+
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final long epoch = System.currentTimeMillis();
+
+    // Guarded by this: ids are assigned, stored and fanned out in one step, so
+    // every subscriber sees notices in id order
+    private final Notice[] ring;
+    private long lastId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingStock = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService stockFlusher =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sse-stock").factory());
+
+    public ChangeBroadcaster(
+            ObjectMapper objectMapper,
+            @Value("${catalog.events.queue-capacity:256}") int queueCapacity,
+            @Value("${catalog.events.replay-size:1024}") int replaySize,
+            @Value("${catalog.events.heartbeat:15s}") Duration heartbeat,
+            @Value("${catalog.events.timeout:30m}") Duration timeout,
+            @Value("${catalog.events.stock-interval:1s}") Duration stockInterval) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.timeoutMillis = timeout.toMillis();
+        this.ring = new Notice[replaySize];
+
+        long millis = stockInterval.toMillis();
+        stockFlusher.scheduleWithFixedDelay(this::flushStock, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of changes to {@code topic}. With the id of the last event a
+     * client received, the notices it missed are replayed first.
+     */
+    public SseEmitter subscribe(Topic topic, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(topic, lastEventId, emitter);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            // Reservations can move stock many times a second; send them in batches
+            case STOCK -> pendingStock.add(event.productId());
+            case BULK -> publish(Topic.PRODUCTS, "product", new Change("bulk", null));
+            default -> publish(Topic.PRODUCTS, "product", new Change(label(event.type()), event.productId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBannerChanged(BannerChangedEvent event) {
+        publish(Topic.BANNERS, "banner", new Change(label(event.type()), event.bannerId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stockFlusher.shutdownNow();
+        subscribers.forEach(Subscriber::stop);
+    }
+
+    // ==================== PACKAGE-PRIVATE METHODS ====================
+
+    void register(Topic topic, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(subscriber::stop);
+        emitter.onTimeout(subscriber::stop);
+        emitter.onError(error -> subscriber.stop());
+
+        subscriber.thread = Thread.ofVirtual().name("sse-" + label(topic)).unstarted(subscriber::run);
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId);
+            } else {
+                // Gives the client an event id to resume from, even if nothing changes before it reconnects
+                subscriber.queue.offer(new Notice(lastId, topic, "ready", "{\"type\":\"ready\"}"));
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.thread.start();
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    void flushStock() {
+        if (pendingStock.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendingStock);
+        pendingStock.removeAll(ids);
+        publish(Topic.PRODUCTS, "stock", new StockChange("stock", ids));
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void publish(Topic topic, String name, Object change) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not render {} change for subscribers", name, e);
+            return;
+        }
+
+        synchronized (this) {
+            Notice notice = new Notice(++lastId, topic, name, data);
+            ring[(int) (notice.id() % ring.length)] = notice;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.topic == topic && !subscriber.queue.offer(notice)) {
+                    log.debug("Disconnecting slow {} subscriber at event {}", topic, notice.id());
+                    subscriber.stop();
+                }
+            }
+        }
+    }
+
+    // Called holding the monitor, before the subscriber sees live notices
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long after = sequenceOf(lastEventId.trim());
+
+        long oldest = Math.max(1, lastId - ring.length + 1);
+        List<Notice> missed = new ArrayList<>();
+        if (after >= oldest - 1 && after <= lastId) {
+            for (long id = after + 1; id <= lastId; id++) {
+                Notice notice = ring[(int) (id % ring.length)];
+                if (notice.topic() == subscriber.topic) {
+                    missed.add(notice);
+                }
+            }
+        }
+        // An id from before a restart, of another instance or past the ring: the client has to reload what it shows
+        if (after < 0 || after < oldest - 1 || after > lastId || missed.size() > queueCapacity) {
+            subscriber.queue.offer(new Notice(lastId, subscriber.topic, "resync", "{\"type\":\"resync\"}"));
+            return;
+        }
+        missed.forEach(subscriber.queue::offer);
+    }
+
+    // Sequence of an event id this broadcaster handed out, or -1
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private static String label(Enum<?> type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+
+    private final class Subscriber {
+
+        final Topic topic;
+        final SseEmitter emitter;
+        final BlockingQueue<Notice> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Thread thread;
+        private volatile boolean stopped;
+
+        Subscriber(Topic topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        // Blocks on the client's socket, so only this subscriber waits on a slow network
+        void run() {
+            try {
+                while (!stopped) {
+                    Notice notice = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (notice == null) {
+                        // Keeps proxies from closing an idle stream and finds dead clients
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(notice.id()))
+                                .name(notice.name())
+                                .data(notice.data()));
+                    }
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                // Evicted or shutting down
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+            } finally {
+                stop();
+            }
+        }
+
+        void stop() {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            remove(this);
+            thread.interrupt();
+        }
+    }
+}
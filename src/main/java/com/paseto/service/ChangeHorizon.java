@@ -0,0 +1,68 @@
+package com.paseto.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The newest products.updated_at a reader of changes can treat as settled: no
+ * write still in flight will commit a row stamped at or before it.
+ *
+ * <p>Ordinary writes stamp updated_at just before a short commit, which the
+ * safety lag (catalog.changes.safety-lag) covers. A write that stamps its rows
+ * and then runs for longer, like the CSV import merge, takes a {@link Hold} first;
+ * the horizon stays below the oldest open hold until it is closed. Holds are only
+ * known to this instance: an import running on another instance is covered by
+ * the safety lag alone.
+ */
+@Component
+public class ChangeHorizon {
+
+    private final Duration safetyLag;
+    private final Set<Hold> holds = ConcurrentHashMap.newKeySet();
+
+    public ChangeHorizon(@Value("${catalog.changes.safety-lag:5s}") Duration safetyLag) {
+        this.safetyLag = safetyLag;
+    }
+
+    public LocalDateTime current() {
+        LocalDateTime horizon = LocalDateTime.now().minus(safetyLag);
+        for (Hold hold : holds) {
+            LocalDateTime beforeHold = hold.since.minus(1, ChronoUnit.MICROS);
+            if (beforeHold.isBefore(horizon)) {
+                horizon = beforeHold;
+            }
+        }
+        return horizon;
+    }
+
+    /**
+     * Keeps the horizon below now until the returned hold is closed. Timestamps
+     * the holder writes must be taken after this call.
+     */
+    public Hold hold() {
+        // Microseconds, the precision updated_at is stored with
+        Hold hold = new Hold(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        holds.add(hold);
+        return hold;
+    }
+
+    public final class Hold implements AutoCloseable {
+
+        private final LocalDateTime since;
+
+        private Hold(LocalDateTime since) {
+            this.since = since;
+        }
+
+        @Override
+        public void close() {
+            holds.remove(this);
+        }
+    }
+}
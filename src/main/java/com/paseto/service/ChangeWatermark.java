@@ -0,0 +1,36 @@
+package com.paseto.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * How far a client has synced: the last product write (updated_at, id) and the
+ * last delete (deleted_at, product id) it has seen. Opaque base64url to clients.
+ */
+record ChangeWatermark(LocalDateTime updatedAt, Long productId, LocalDateTime deletedAt, Long deletedId) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = updatedAt + SEPARATOR + productId + SEPARATOR + deletedAt + SEPARATOR + deletedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChangeWatermark decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid watermark");
+            }
+            return new ChangeWatermark(
+                    LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid watermark");
+        }
+    }
+}
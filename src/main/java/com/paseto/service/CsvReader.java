@@ -0,0 +1,82 @@
+package com.paseto.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: comma-separated fields, double-quoted fields may
+ * contain commas, doubled quotes and line breaks. Reads one record at a time,
+ * so memory only depends on the longest record.
+ */
+final class CsvReader {
+
+    private final Reader reader;
+    // Line the next record starts on, and the line the last returned one started on
+    private long line = 1;
+    private long recordLine;
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Line number (1-based) on which the last record returned by {@link #next()} started.
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the input.
+     *
+     * @throws IllegalArgumentException if a quoted field is never closed
+     */
+    List<String> next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = reader.read();
+                    if (following != '"') {
+                        // Closing quote; the following character belongs to the unquoted state
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c == '\n') {
+                    line++;
+                }
+                return fields;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
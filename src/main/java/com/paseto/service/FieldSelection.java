@@ -0,0 +1,37 @@
+package com.paseto.service;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parses a {@code ?fields=id,name,price} list against the fields a resource has.
+ */
+final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    /**
+     * @return the requested fields in the order given, each once
+     * @throws IllegalArgumentException if the list is empty or names an unknown field
+     */
+    static Set<String> parse(String fields, Set<String> allowed) {
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!allowed.contains(name)) {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                }
+                selected.add(name);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,38 @@
+package com.paseto.service;
+
+import com.paseto.repository.ProductSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last product on a filtered page: the sort it belongs to, that
+ * row's sort key and its id. Opaque base64url to clients, like {@link ProductCursor}.
+ */
+record FilterCursor(ProductSort sort, Comparable<?> key, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = sort.name() + SEPARATOR + sort.format(key) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    static FilterCursor decode(String token, ProductSort sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new FilterCursor(sort, sort.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,1023 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductStoreStatsResponse;
+import com.paseto.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_INT_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * Optional copy of the whole catalog kept outside the Java heap, so that a few
+ * million products cost the garbage collector nothing to trace.
+ *
+ * <p>Each product is one fixed-width row in a native segment: id, price in cents,
+ * stock, active flag, timestamps and version, plus references into a second
+ * segment that holds the text fields as length-prefixed UTF-8. A primitive
+ * open-addressing table maps product ids to rows. Readers decode a row into a
+ * {@link ProductResponse} on demand.
+ *
+ * <p>Writes never touch a row readers can see: a changed product gets a new row
+ * and new text, then the index is pointed at it. Full segments are copied into
+ * larger ones, and the table is compacted once dead rows pile up. Built at
+ * startup by streaming {@code products} and kept current from
+ * {@link ProductChangedEvent}s; a bulk change rebuilds it in the background.
+ *
+ * <p>With catalog.offheap.snapshot.path set, the store is also saved to that file
+ * every catalog.offheap.snapshot.interval and at shutdown: the index arrays and
+ * the used bytes of both segments, as they are in memory. At startup the file is
+ * memory-mapped and used as is, then caught up by reading only the products
+ * updated, and the tombstones recorded, after the time the store last read the
+ * database. The first write after a restore copies a segment into native memory.
+ *
+ * <p>Events only carry this instance's writes. Every catalog.offheap.catch-up-interval
+ * the store reads the same delta as a restore (products updated and tombstones
+ * recorded since it last synced), so writes through other instances or direct
+ * SQL are picked up within that interval plus the safety lag.
+ */
+@Slf4j
+@Component
+public class OffHeapProductStore {
+
+    private static final StructLayout ROW = MemoryLayout.structLayout(
+            JAVA_LONG.withName("id"),
+            JAVA_LONG.withName("priceCents"),
+            JAVA_LONG.withName("createdAt"),
+            JAVA_LONG.withName("updatedAt"),
+            JAVA_LONG.withName("version"),
+            JAVA_LONG.withName("name"),
+            JAVA_LONG.withName("description"),
+            JAVA_LONG.withName("imageUrl"),
+            JAVA_LONG.withName("sku"),
+            JAVA_INT.withName("stock"),
+            JAVA_BYTE.withName("active"),
+            MemoryLayout.paddingLayout(3));
+
+    private static final long ROW_BYTES = ROW.byteSize();
+    private static final long ID = offset("id");
+    private static final long PRICE_CENTS = offset("priceCents");
+    private static final long CREATED_AT = offset("createdAt");
+    private static final long UPDATED_AT = offset("updatedAt");
+    private static final long VERSION = offset("version");
+    private static final long NAME = offset("name");
+    private static final long DESCRIPTION = offset("description");
+    private static final long IMAGE_URL = offset("imageUrl");
+    private static final long SKU = offset("sku");
+    private static final long STOCK = offset("stock");
+    private static final long ACTIVE = offset("active");
+
+    // Null markers for the fixed-width columns; text references use NO_TEXT
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final byte NULL_BYTE = -1;
+    private static final long NO_TEXT = -1;
+
+    private static final int COMPACT_MIN_DEAD = 1024;
+    private static final int TEXT_BYTES_PER_ROW = 64;
+
+    // ProductResponse graph on a 64-bit JVM with compressed oops: the object, Long id
+    // and version, BigDecimal, Integer stock, two LocalDateTime (with date and time),
+    // and a HashMap node to find it by id. Strings are added per field
+    private static final long HEAP_BYTES_PER_PRODUCT = 56 + 16 + 16 + 40 + 16 + 2 * 72 + 40;
+    private static final long HEAP_BYTES_PER_STRING = 24 + 16;
+
+    // Snapshot file: header, index keys and values, rows, text
+    private static final int SNAPSHOT_MAGIC = 0x50534E50;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final long SNAPSHOT_HEADER_BYTES = 64;
+
+    private static final String LOAD_SQL = "SELECT id, name, description, price, stock, image_url, sku, active, " +
+            "created_at, updated_at, version FROM products";
+    private static final String CHANGED_SQL = LOAD_SQL + " WHERE updated_at > ?";
+    private static final String DELETED_SQL = "SELECT product_id FROM product_tombstones WHERE deleted_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int fetchSize;
+    private final int initialCapacity;
+    private final Path snapshotPath;
+    private final ChangeHorizon changeHorizon;
+    private final ScheduledExecutorService snapshotWriter;
+    private final ScheduledExecutorService catchUpScheduler;
+
+    // Serializes writers; readers only ever lock the table they read
+    private final Object writes = new Object();
+    private volatile Table table;
+    // Guarded by writes. Non-null while a rebuild is streaming rows; changes seen meanwhile are replayed on the new table
+    private List<Change> pendingChanges;
+
+    private volatile boolean ready;
+    // Changes committed before this are in the table: the change horizon when it last read the database.
+    // Not when it was last written to, since only this instance's writes reach it
+    private volatile LocalDateTime syncedAt;
+    // Bumped by every bulk change; a build that overlapped one is not trusted
+    private final AtomicLong bulkChanges = new AtomicLong();
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("offheap-store-rebuild").factory());
+
+    // A product to store, or null to remove the id
+    private record Change(Long productId, ProductResponse product) {}
+
+    private record Snapshot(Table table, LocalDateTime syncedAt) {}
+
+    public OffHeapProductStore(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ChangeHorizon changeHorizon,
+            @Value("${catalog.offheap.enabled:false}") boolean enabled,
+            @Value("${catalog.export.fetch-size:1000}") int fetchSize,
+            @Value("${catalog.offheap.initial-capacity:1024}") int initialCapacity,
+            @Value("${catalog.offheap.snapshot.path:}") String snapshotPath,
+            @Value("${catalog.offheap.snapshot.interval:10m}") Duration snapshotInterval,
+            @Value("${catalog.offheap.catch-up-interval:30s}") Duration catchUpInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+        this.initialCapacity = Math.max(16, initialCapacity);
+        this.table = new Table(enabled ? this.initialCapacity : 16);
+        this.snapshotPath = enabled && !snapshotPath.isBlank() ? Path.of(snapshotPath) : null;
+        this.changeHorizon = changeHorizon;
+
+        if (this.snapshotPath != null) {
+            this.snapshotWriter = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofVirtual().name("offheap-store-snapshot").factory());
+            long millis = snapshotInterval.toMillis();
+            snapshotWriter.scheduleWithFixedDelay(this::writeSnapshot, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotWriter = null;
+        }
+
+        if (enabled && catchUpInterval.isPositive()) {
+            this.catchUpScheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofVirtual().name("offheap-store-catch-up").factory());
+            long millis = catchUpInterval.toMillis();
+            catchUpScheduler.scheduleWithFixedDelay(this::catchUp, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.catchUpScheduler = null;
+        }
+    }
+
+    /**
+     * True once the initial build finished; until then callers should use the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the stored product, or null when the store does not hold {@code id}
+     * (not created, deleted, or created so recently that its event is still on the way).
+     */
+    public ProductResponse find(Long id) {
+        return read(current -> current.find(id), null);
+    }
+
+    /**
+     * Memory held by the store, next to an estimate of the same products kept on
+     * the heap as {@link ProductResponse} objects in a map by id.
+     */
+    public ProductStoreStatsResponse stats() {
+        return read(current -> current.stats(ready), new ProductStoreStatsResponse(false, 0L, 0L, 0L, 0L, 0L, 0L, 0L));
+    }
+
+    // Before ProductCache invalidates, so a reload after a write never reads a stale row
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            // Too many rows to replay one by one; read the database until a fresh build lands
+            bulkChanges.incrementAndGet();
+            ready = false;
+            rebuildExecutor.execute(this::rebuild);
+            return;
+        }
+
+        Change change = switch (event.type()) {
+            case DELETED -> new Change(event.productId(), null);
+            // Only the id comes with a stock move; read the row as committed
+            case STOCK -> new Change(event.productId(), loadRow(event.productId()));
+            default -> new Change(event.productId(), event.product());
+        };
+
+        synchronized (writes) {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            table.apply(change);
+            compactIfNeeded();
+        }
+    }
+
+    // Runs after DataInitializer so seeded products are included
+    @Order
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (enabled && (snapshotPath == null || !restore())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams all products into a fresh table and swaps it in. Reads keep using
+     * the previous table until the swap.
+     */
+    public synchronized void rebuild() {
+        install("Built", new Table(initialCapacity), fresh -> stream(LOAD_SQL, null, fresh::put));
+    }
+
+    /**
+     * Applies the products updated and deleted in the database since the store last
+     * synced, including writes this instance never saw an event for. Changes seen
+     * meanwhile are replayed afterwards, so a row read before its delete committed
+     * does not come back. Skipped while the store is not ready.
+     */
+    public synchronized void catchUp() {
+        LocalDateTime since = syncedAt;
+        if (!enabled || !ready || since == null) {
+            return;
+        }
+
+        LocalDateTime horizon = changeHorizon.current();
+        synchronized (writes) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        int changed;
+        List<Long> deleted;
+        try {
+            changed = stream(CHANGED_SQL, since, product -> {
+                synchronized (writes) {
+                    table.put(product);
+                }
+            });
+            deleted = jdbcTemplate.queryForList(DELETED_SQL, Long.class, since);
+        } catch (RuntimeException e) {
+            synchronized (writes) {
+                pendingChanges = null;
+            }
+            log.warn("Failed to catch up off-heap product store from {}", since, e);
+            return;
+        }
+
+        synchronized (writes) {
+            deleted.forEach(table::remove);
+            for (Change change : pendingChanges) {
+                table.apply(change);
+            }
+            pendingChanges = null;
+            compactIfNeeded();
+            if (horizon.isAfter(since)) {
+                syncedAt = horizon;
+            }
+        }
+        if (changed > 0 || !deleted.isEmpty()) {
+            log.debug("Caught up off-heap product store from {}: {} changed, {} deleted products",
+                    since, changed, deleted.size());
+        }
+    }
+
+    /**
+     * Saves the store to the snapshot file, replacing the previous one in a single
+     * move. Writers wait only while the bytes are copied to the page cache, not
+     * for the disk. Skipped while the store is not ready.
+     */
+    public synchronized void writeSnapshot() {
+        LocalDateTime synced = syncedAt;
+        if (snapshotPath == null || !ready || synced == null) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            while (true) {
+                Table current = table;
+                if (current.writeTo(temp, toNanos(synced))) {
+                    break;
+                }
+                if (current == table) {
+                    // Closed by shutdown
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote off-heap product store snapshot {} ({} bytes) in {} ms",
+                    snapshotPath, Files.size(snapshotPath), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            // The previous snapshot stays in place; a restore from it replays a longer window
+            log.warn("Failed to write off-heap product store snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+        if (catchUpScheduler != null) {
+            catchUpScheduler.shutdownNow();
+        }
+        if (snapshotWriter != null) {
+            snapshotWriter.shutdownNow();
+            writeSnapshot();
+        }
+        synchronized (writes) {
+            table.close();
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    // Maps the snapshot and catches it up with the database; false to build from scratch instead
+    private synchronized boolean restore() {
+        Snapshot snapshot;
+        try {
+            snapshot = readSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable off-heap product store snapshot {}", snapshotPath, e);
+            return false;
+        }
+        if (snapshot == null) {
+            return false;
+        }
+
+        return install("Restored", snapshot.table(), fresh -> {
+            int changed = stream(CHANGED_SQL, snapshot.syncedAt(), fresh::put);
+            List<Long> deleted = jdbcTemplate.queryForList(DELETED_SQL, Long.class, snapshot.syncedAt());
+            deleted.forEach(fresh::remove);
+            log.info("Caught up off-heap product store snapshot from {}: {} changed, {} deleted products",
+                    snapshot.syncedAt(), changed, deleted.size());
+        });
+    }
+
+    /**
+     * Fills {@code fresh} with {@code loader} and swaps it in, replaying the changes
+     * committed meanwhile. Called holding the monitor, so loads never overlap.
+     */
+    private boolean install(String action, Table fresh, Consumer<Table> loader) {
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime horizon = changeHorizon.current();
+        long bulkChangesSeen = bulkChanges.get();
+
+        synchronized (writes) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        try {
+            loader.accept(fresh);
+        } catch (RuntimeException e) {
+            synchronized (writes) {
+                pendingChanges = null;
+            }
+            fresh.close();
+            log.error("Failed to load off-heap product store", e);
+            return false;
+        }
+
+        Table previous;
+        synchronized (writes) {
+            for (Change change : pendingChanges) {
+                fresh.apply(change);
+            }
+            pendingChanges = null;
+            previous = table;
+            table = fresh;
+            syncedAt = horizon;
+            // A bulk change during the load already queued a rebuild
+            ready = bulkChangesSeen == bulkChanges.get();
+        }
+        previous.close();
+
+        ProductStoreStatsResponse stats = stats();
+        log.info("{} off-heap product store: {} products, {} bytes off-heap (about {} bytes as heap objects) in {} ms",
+                action, stats.getProducts(), stats.getOffHeapBytes(), stats.getEstimatedHeapBytes(),
+                Duration.between(start, LocalDateTime.now()).toMillis());
+        return true;
+    }
+
+    // Streams products to sink through a read-only cursor; with since, only those updated after it
+    private int stream(String sql, LocalDateTime since, Consumer<ProductResponse> sink) {
+        int[] rows = {0};
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    if (since != null) {
+                        statement.setObject(1, since);
+                    }
+                    return statement;
+                },
+                rs -> {
+                    sink.accept(toResponse(rs));
+                    rows[0]++;
+                }));
+        return rows[0];
+    }
+
+    private Snapshot readSnapshot() throws IOException {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            long fileSize = channel.size();
+            if (fileSize < SNAPSHOT_HEADER_BYTES) {
+                log.warn("Ignoring truncated off-heap product store snapshot {}", snapshotPath);
+                return null;
+            }
+
+            MemorySegment header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SNAPSHOT_HEADER_BYTES, arena);
+            int capacity = header.get(JAVA_INT, 12);
+            long synced = header.get(JAVA_LONG, 16);
+            long size = header.get(JAVA_LONG, 24);
+            long rowCount = header.get(JAVA_LONG, 32);
+            long deadRows = header.get(JAVA_LONG, 40);
+            long rowBytes = header.get(JAVA_LONG, 48);
+            long textBytes = header.get(JAVA_LONG, 56);
+
+            long indexAt = SNAPSHOT_HEADER_BYTES;
+            long rowsAt = indexAt + (long) capacity * (Long.BYTES + Integer.BYTES);
+            long textAt = rowsAt + rowBytes;
+            if (header.get(JAVA_INT, 0) != SNAPSHOT_MAGIC || header.get(JAVA_INT, 4) != SNAPSHOT_FORMAT
+                    || header.get(JAVA_INT, 8) != ROW_BYTES || capacity < 16 || Integer.bitCount(capacity) != 1
+                    || rowBytes != rowCount * ROW_BYTES || textAt + textBytes != fileSize) {
+                log.warn("Ignoring off-heap product store snapshot {} written in another format or cut short", snapshotPath);
+                return null;
+            }
+
+            MemorySegment index = channel.map(FileChannel.MapMode.READ_ONLY, indexAt, rowsAt - indexAt, arena);
+            long[] keys = index.asSlice(0, (long) capacity * Long.BYTES).toArray(JAVA_LONG);
+            int[] values = index.asSlice((long) capacity * Long.BYTES).toArray(JAVA_INT);
+
+            Table restored = new Table(new LongIntIndex(keys, values, (int) size),
+                    Region.mapped(channel, rowsAt, rowBytes), Region.mapped(channel, textAt, textBytes),
+                    (int) rowCount, (int) deadRows);
+            return new Snapshot(restored, fromNanos(synced));
+        }
+    }
+
+    private <T> T read(Function<Table, T> reader, T afterShutdown) {
+        while (true) {
+            Table current = table;
+            current.lock.readLock().lock();
+            try {
+                if (!current.closed) {
+                    return reader.apply(current);
+                }
+                if (current == table) {
+                    return afterShutdown;
+                }
+                // A compaction or rebuild closed it after we read the field; use its successor
+            } finally {
+                current.lock.readLock().unlock();
+            }
+        }
+    }
+
+    private ProductResponse loadRow(Long id) {
+        List<ProductResponse> rows = jdbcTemplate.query(LOAD_SQL + " WHERE id = ?", (rs, rowNum) -> toResponse(rs), id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void compactIfNeeded() {
+        Table current = table;
+        if (current.deadRows >= COMPACT_MIN_DEAD && current.deadRows > current.index.size() / 4) {
+            table = current.compacted();
+            current.close();
+        }
+    }
+
+    private static ProductResponse toResponse(ResultSet rs) throws SQLException {
+        return new ProductResponse(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBigDecimal("price"),
+                rs.getObject("stock", Integer.class),
+                rs.getString("image_url"),
+                rs.getString("sku"),
+                rs.getObject("active", Boolean.class),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("version", Long.class));
+    }
+
+    private static long offset(String column) {
+        return ROW.byteOffset(groupElement(column));
+    }
+
+    // Nanoseconds since 1970 read as UTC: exact for LocalDateTime until 2262
+    private static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NULL_LONG;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        if (nanos == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * One native allocation. Bytes past {@code used} are free; a full region is
+     * replaced by a larger copy and closed once no reader can reach it.
+     */
+    private static final class Region {
+        final Arena arena;
+        final MemorySegment segment;
+        long used;
+
+        Region(long capacity) {
+            this.arena = Arena.ofShared();
+            this.segment = arena.allocate(capacity, Long.BYTES);
+        }
+
+        private Region(Arena arena, MemorySegment segment, long used) {
+            this.arena = arena;
+            this.segment = segment;
+            this.used = used;
+        }
+
+        /**
+         * A read-only region over part of a snapshot file. It is full, so the first
+         * append copies it into native memory.
+         */
+        static Region mapped(FileChannel channel, long position, long size) throws IOException {
+            Arena arena = Arena.ofShared();
+            try {
+                return new Region(arena, channel.map(FileChannel.MapMode.READ_ONLY, position, size, arena), size);
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        boolean fits(long bytes) {
+            return used + bytes <= segment.byteSize();
+        }
+
+        Region grownFor(long bytes) {
+            Region copy = new Region(Math.max(segment.byteSize() * 2, used + bytes));
+            MemorySegment.copy(segment, 0, copy.segment, 0, used);
+            copy.used = used;
+            return copy;
+        }
+
+        void close() {
+            arena.close();
+        }
+    }
+
+    /**
+     * Rows, text and the id index of one generation of the store. Only the writer
+     * appends to it; the lock orders its appends before the reads that find them,
+     * and keeps a region from being closed under a reader.
+     */
+    private static final class Table {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final LongIntIndex index;
+        Region rows;
+        Region text;
+        int rowCount;
+        int deadRows;
+        boolean closed;
+
+        Table(int capacity) {
+            this.index = new LongIntIndex(capacity);
+            this.rows = new Region(capacity * ROW_BYTES);
+            this.text = new Region((long) capacity * TEXT_BYTES_PER_ROW);
+        }
+
+        Table(LongIntIndex index, Region rows, Region text, int rowCount, int deadRows) {
+            this.index = index;
+            this.rows = rows;
+            this.text = text;
+            this.rowCount = rowCount;
+            this.deadRows = deadRows;
+        }
+
+        void apply(Change change) {
+            if (change.product() == null) {
+                remove(change.productId());
+            } else {
+                put(change.product());
+            }
+        }
+
+        void put(ProductResponse product) {
+            long id = product.getId();
+            int existing = index.get(id);
+            if (existing >= 0 && product.getVersion() != null
+                    && rows.segment.get(JAVA_LONG, existing * ROW_BYTES + VERSION) >= product.getVersion()) {
+                // Events can arrive out of order; never go back to an older version. The same
+                // version again is a write seen twice, as an event and by a catch-up
+                return;
+            }
+
+            byte[][] fields = {utf8(product.getName()), utf8(product.getDescription()),
+                    utf8(product.getImageUrl()), utf8(product.getSku())};
+            long textBytes = Arrays.stream(fields).mapToLong(bytes -> bytes == null ? 0 : Integer.BYTES + bytes.length).sum();
+
+            // Written past the used bytes, where no reader looks until the index points there
+            Region targetRows = rows.fits(ROW_BYTES) ? rows : rows.grownFor(ROW_BYTES);
+            Region targetText = text.fits(textBytes) ? text : text.grownFor(textBytes);
+
+            long textAt = targetText.used;
+            long[] refs = new long[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == null) {
+                    refs[i] = NO_TEXT;
+                    continue;
+                }
+                refs[i] = textAt;
+                targetText.segment.set(JAVA_INT_UNALIGNED, textAt, fields[i].length);
+                MemorySegment.copy(fields[i], 0, targetText.segment, JAVA_BYTE, textAt + Integer.BYTES, fields[i].length);
+                textAt += Integer.BYTES + fields[i].length;
+            }
+
+            int row = rowCount;
+            long base = row * ROW_BYTES;
+            MemorySegment segment = targetRows.segment;
+            segment.set(JAVA_LONG, base + ID, id);
+            segment.set(JAVA_LONG, base + PRICE_CENTS, product.getPrice() == null ? NULL_LONG
+                    : product.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+            segment.set(JAVA_LONG, base + CREATED_AT, toNanos(product.getCreatedAt()));
+            segment.set(JAVA_LONG, base + UPDATED_AT, toNanos(product.getUpdatedAt()));
+            segment.set(JAVA_LONG, base + VERSION, product.getVersion() == null ? NULL_LONG : product.getVersion());
+            segment.set(JAVA_LONG, base + NAME, refs[0]);
+            segment.set(JAVA_LONG, base + DESCRIPTION, refs[1]);
+            segment.set(JAVA_LONG, base + IMAGE_URL, refs[2]);
+            segment.set(JAVA_LONG, base + SKU, refs[3]);
+            segment.set(JAVA_INT, base + STOCK, product.getStock() == null ? NULL_INT : product.getStock());
+            segment.set(JAVA_BYTE, base + ACTIVE, product.getActive() == null ? NULL_BYTE
+                    : (byte) (product.getActive() ? 1 : 0));
+
+            Region retiredRows = targetRows == rows ? null : rows;
+            Region retiredText = targetText == text ? null : text;
+            lock.writeLock().lock();
+            try {
+                rows = targetRows;
+                text = targetText;
+                rows.used = base + ROW_BYTES;
+                text.used = textAt;
+                rowCount++;
+                if (index.put(id, row) >= 0) {
+                    deadRows++;
+                }
+                if (retiredRows != null) {
+                    retiredRows.close();
+                }
+                if (retiredText != null) {
+                    retiredText.close();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                if (index.remove(id) >= 0) {
+                    deadRows++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Called holding the read lock
+        ProductResponse find(long id) {
+            int row = index.get(id);
+            return row < 0 ? null : read(row);
+        }
+
+        // Called holding the read lock
+        ProductStoreStatsResponse stats(boolean ready) {
+            long[] heapBytes = {0};
+            index.forEach((id, row) -> {
+                long base = row * ROW_BYTES;
+                heapBytes[0] += HEAP_BYTES_PER_PRODUCT;
+                for (long column : new long[]{NAME, DESCRIPTION, IMAGE_URL, SKU}) {
+                    long ref = rows.segment.get(JAVA_LONG, base + column);
+                    if (ref != NO_TEXT) {
+                        // Compact strings: one byte per character for Latin-1 text
+                        heapBytes[0] += HEAP_BYTES_PER_STRING + align(text.segment.get(JAVA_INT_UNALIGNED, ref));
+                    }
+                }
+            });
+
+            return new ProductStoreStatsResponse(
+                    ready,
+                    (long) index.size(),
+                    (long) deadRows,
+                    rows.used,
+                    text.used,
+                    index.bytes(),
+                    rows.segment.byteSize() + text.segment.byteSize(),
+                    heapBytes[0]);
+        }
+
+        /**
+         * A copy holding only the live rows, each with its text.
+         */
+        Table compacted() {
+            Table copy = new Table(Math.max(16, index.size()));
+            index.forEach((id, row) -> copy.put(read(row)));
+            return copy;
+        }
+
+        /**
+         * Writes the snapshot file; false if the table was closed first.
+         */
+        boolean writeTo(Path file, long syncedNanos) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 Arena arena = Arena.ofConfined()) {
+                MemorySegment out;
+                lock.readLock().lock();
+                try {
+                    if (closed) {
+                        return false;
+                    }
+                    out = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                            SNAPSHOT_HEADER_BYTES + index.bytes() + rows.used + text.used, arena);
+                    out.set(JAVA_INT, 0, SNAPSHOT_MAGIC);
+                    out.set(JAVA_INT, 4, SNAPSHOT_FORMAT);
+                    out.set(JAVA_INT, 8, (int) ROW_BYTES);
+                    out.set(JAVA_INT, 12, index.capacity());
+                    out.set(JAVA_LONG, 16, syncedNanos);
+                    out.set(JAVA_LONG, 24, index.size());
+                    out.set(JAVA_LONG, 32, rowCount);
+                    out.set(JAVA_LONG, 40, deadRows);
+                    out.set(JAVA_LONG, 48, rows.used);
+                    out.set(JAVA_LONG, 56, text.used);
+
+                    long at = index.writeTo(out, SNAPSHOT_HEADER_BYTES);
+                    MemorySegment.copy(rows.segment, 0, out, at, rows.used);
+                    MemorySegment.copy(text.segment, 0, out, at + rows.used, text.used);
+                } finally {
+                    lock.readLock().unlock();
+                }
+                // Everything is in the page cache; writers need not wait for the disk
+                out.force();
+            }
+            return true;
+        }
+
+        void close() {
+            lock.writeLock().lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    rows.close();
+                    text.close();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private ProductResponse read(int row) {
+            long base = row * ROW_BYTES;
+            MemorySegment segment = rows.segment;
+            long priceCents = segment.get(JAVA_LONG, base + PRICE_CENTS);
+            long version = segment.get(JAVA_LONG, base + VERSION);
+            int stock = segment.get(JAVA_INT, base + STOCK);
+            byte active = segment.get(JAVA_BYTE, base + ACTIVE);
+            return new ProductResponse(
+                    segment.get(JAVA_LONG, base + ID),
+                    string(segment.get(JAVA_LONG, base + NAME)),
+                    string(segment.get(JAVA_LONG, base + DESCRIPTION)),
+                    priceCents == NULL_LONG ? null : BigDecimal.valueOf(priceCents, 2),
+                    stock == NULL_INT ? null : stock,
+                    string(segment.get(JAVA_LONG, base + IMAGE_URL)),
+                    string(segment.get(JAVA_LONG, base + SKU)),
+                    active == NULL_BYTE ? null : active == 1,
+                    fromNanos(segment.get(JAVA_LONG, base + CREATED_AT)),
+                    fromNanos(segment.get(JAVA_LONG, base + UPDATED_AT)),
+                    version == NULL_LONG ? null : version);
+        }
+
+        private String string(long ref) {
+            if (ref == NO_TEXT) {
+                return null;
+            }
+            byte[] bytes = new byte[text.segment.get(JAVA_INT_UNALIGNED, ref)];
+            MemorySegment.copy(text.segment, JAVA_BYTE, ref + Integer.BYTES, bytes, 0, bytes.length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static byte[] utf8(String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+
+    /**
+     * Product id to row number, open addressing with linear probing over two
+     * primitive arrays, so the index is two objects however many products there
+     * are. Id 0 marks a free slot (product ids start at 1); removal shifts the
+     * following entries back instead of leaving tombstones.
+     */
+    private static final class LongIntIndex {
+
+        interface Visitor {
+            void visit(long key, int value);
+        }
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntIndex(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+        }
+
+        LongIntIndex(long[] keys, int[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        /**
+         * Copies the keys, then the values, into {@code out}; returns the offset after them.
+         */
+        long writeTo(MemorySegment out, long offset) {
+            MemorySegment.copy(keys, 0, out, JAVA_LONG, offset, keys.length);
+            long valuesAt = offset + (long) keys.length * Long.BYTES;
+            MemorySegment.copy(values, 0, out, JAVA_INT, valuesAt, values.length);
+            return valuesAt + (long) values.length * Integer.BYTES;
+        }
+
+        long bytes() {
+            return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+        }
+
+        /**
+         * Row of {@code key}, or -1.
+         */
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                if (keys[slot] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Maps {@code key} to {@code value} and returns the previous value, or -1.
+         */
+        int put(long key, int value) {
+            if (key == 0) {
+                throw new IllegalArgumentException("Product id must not be 0");
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    int previous = values[slot];
+                    values[slot] = value;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+            return -1;
+        }
+
+        /**
+         * Removes {@code key} and returns its value, or -1 if it was absent.
+         */
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (keys[slot] == 0) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int removed = values[slot];
+
+            // Move back every following entry whose home slot is not between the hole and itself
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                boolean staysPut = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!staysPut) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+            return removed;
+        }
+
+        void forEach(Visitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    visitor.visit(keys[slot], values[slot]);
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != 0) {
+                    put(oldKeys[slot], oldValues[slot]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
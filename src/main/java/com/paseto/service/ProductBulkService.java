@@ -0,0 +1,341 @@
+package com.paseto.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paseto.dto.ProductBulkOperation;
+import com.paseto.dto.ProductBulkResponse;
+import com.paseto.dto.ProductBulkResult;
+import com.paseto.dto.ProductRequest;
+import com.paseto.dto.ProductResponse;
+import com.paseto.entity.Product;
+import com.paseto.event.ProductChangedEvent;
+import com.paseto.repository.ProductRepository;
+import com.paseto.repository.ProductTombstoneRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a stream of product creates, updates and deletes. Elements are read
+ * and validated one at a time from a JSON array or NDJSON body, then written in
+ * chunks of catalog.bulk.chunk-size, one transaction per chunk. Inserts and
+ * updates go out as JDBC batches (pooled sequence ids, hibernate.jdbc.batch_size)
+ * and deletes as one statement per chunk.
+ */
+@Slf4j
+@Service
+public class ProductBulkService {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE;
+
+        public static Operation from(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Operation is required");
+            }
+            try {
+                return Operation.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported operation: " + value);
+            }
+        }
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+
+    // A validated element waiting for its chunk
+    private record Item(int index, Operation operation, Long id, ProductRequest product) {}
+
+    public ProductBulkService(
+            ProductRepository productRepository,
+            ProductTombstoneRepository productTombstoneRepository,
+            CatalogVersion catalogVersion,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.bulk.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.productTombstoneRepository = productTombstoneRepository;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads operations from {@code in} until it ends and applies them. Invalid
+     * elements are reported and skipped; a malformed element ends the read, and
+     * everything before it is still applied.
+     */
+    public ProductBulkResponse apply(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        List<ProductBulkResult> results = new ArrayList<>();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        // readValues takes both a top-level array and a sequence of root values (NDJSON)
+        try (MappingIterator<ProductBulkOperation> operations =
+                     objectMapper.readerFor(ProductBulkOperation.class).readValues(in)) {
+            while (true) {
+                ProductBulkOperation operation;
+                try {
+                    if (!operations.hasNextValue()) {
+                        break;
+                    }
+                    operation = operations.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser position is unknown after a syntax error, so stop here
+                    results.add(ProductBulkResult.failed(index, null, 400, null,
+                            "Malformed item: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                if (operation == null) {
+                    results.add(ProductBulkResult.failed(index++, null, 400, null, "Item must be an object"));
+                    continue;
+                }
+
+                try {
+                    chunk.add(validate(index, operation));
+                } catch (IllegalArgumentException e) {
+                    results.add(ProductBulkResult.failed(index, operation.getOp(), 400, operation.getId(), e.getMessage()));
+                }
+                index++;
+
+                if (chunk.size() == chunkSize) {
+                    results.addAll(applyChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(applyChunk(chunk));
+        }
+
+        results.sort(Comparator.comparingInt(ProductBulkResult::getIndex));
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk product sync: {} items, {} failed in {} ms ({} items/s)",
+                results.size(), failed, elapsedMillis, results.size() * 1000L / elapsedMillis);
+
+        return new ProductBulkResponse(results.size(), results.size() - failed, failed, results);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private Item validate(int index, ProductBulkOperation operation) {
+        Operation type = Operation.from(operation.getOp());
+
+        if (type == Operation.CREATE && operation.getId() != null) {
+            throw new IllegalArgumentException("Id must not be set for create");
+        }
+        if (type != Operation.CREATE && operation.getId() == null) {
+            throw new IllegalArgumentException("Id is required for " + type.label());
+        }
+        if (type != Operation.DELETE) {
+            if (operation.getProduct() == null) {
+                throw new IllegalArgumentException("Product is required for " + type.label());
+            }
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(operation.getProduct());
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+
+        return new Item(index, type, operation.getId(), operation.getProduct());
+    }
+
+    /**
+     * Writes one chunk in its own transaction. If the chunk fails to commit, every
+     * element in it is reported as not applied.
+     */
+    private List<ProductBulkResult> applyChunk(List<Item> chunk) {
+        try {
+            return transaction.execute(status -> writeChunk(chunk));
+        } catch (RuntimeException e) {
+            log.warn("Bulk chunk of {} items starting at index {} rolled back", chunk.size(), chunk.get(0).index(), e);
+            int status = e instanceof DataIntegrityViolationException
+                    || e instanceof OptimisticLockingFailureException ? 409 : 500;
+            return chunk.stream()
+                    .map(item -> ProductBulkResult.failed(item.index(), item.operation().label(), status, item.id(),
+                            "Not applied: chunk rolled back"))
+                    .toList();
+        }
+    }
+
+    private List<ProductBulkResult> writeChunk(List<Item> chunk) {
+        Set<Long> targetIds = chunk.stream()
+                .filter(item -> item.operation() != Operation.CREATE)
+                .map(Item::id)
+                .collect(Collectors.toSet());
+        // One SELECT for every row the chunk updates or deletes
+        Map<Long, Product> existing = targetIds.isEmpty() ? new HashMap<>() :
+                productRepository.findAllById(targetIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // SKUs in use when the chunk starts, plus those claimed by earlier elements. A SKU
+        // freed by an update or delete in the same chunk is not reused: inserts flush first.
+        Set<String> skus = chunk.stream()
+                .filter(item -> item.product() != null && item.product().getSku() != null)
+                .map(item -> item.product().getSku())
+                .collect(Collectors.toSet());
+        Map<String, Long> skuOwners = new HashMap<>();
+        if (!skus.isEmpty()) {
+            productRepository.findBySkuIn(skus).forEach(product -> skuOwners.put(product.getSku(), product.getId()));
+        }
+
+        Product[] written = new Product[chunk.size()];
+        boolean[] deleted = new boolean[chunk.size()];
+        ProductBulkResult[] results = new ProductBulkResult[chunk.size()];
+        List<Product> created = new ArrayList<>();
+        Set<Long> deletedIds = new HashSet<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Item item = chunk.get(i);
+            switch (item.operation()) {
+                case CREATE -> {
+                    if (!claimSku(skuOwners, item, null)) {
+                        results[i] = duplicateSku(item);
+                    } else {
+                        Product product = new Product();
+                        copy(item.product(), product);
+                        created.add(product);
+                        written[i] = product;
+                    }
+                }
+                case UPDATE -> {
+                    Product product = existing.get(item.id());
+                    if (product == null) {
+                        results[i] = notFound(item);
+                    } else if (!claimSku(skuOwners, item, item.id())) {
+                        results[i] = duplicateSku(item);
+                    } else {
+                        copy(item.product(), product);
+                        written[i] = product;
+                    }
+                }
+                case DELETE -> {
+                    // Later elements of the same chunk see the product as gone
+                    if (existing.remove(item.id()) == null) {
+                        results[i] = notFound(item);
+                    } else {
+                        deletedIds.add(item.id());
+                        deleted[i] = true;
+                        results[i] = ProductBulkResult.ok(item.index(), item.operation().label(), 200, item.id());
+                    }
+                }
+            }
+        }
+
+        // Persist assigns pooled sequence ids; the flush sends inserts and updates as JDBC batches
+        productRepository.saveAll(created);
+        productRepository.flush();
+        if (!deletedIds.isEmpty()) {
+            productTombstoneRepository.recordDeletes(deletedIds, LocalDateTime.now());
+            productRepository.deleteAllByIdInBatch(deletedIds);
+        }
+        if (Arrays.stream(written).anyMatch(Objects::nonNull) || !deletedIds.isEmpty()) {
+            catalogVersion.bump();
+        }
+
+        // Events follow element order, so an update and a later delete of the same id end deleted
+        for (int i = 0; i < chunk.size(); i++) {
+            Item item = chunk.get(i);
+            if (deleted[i]) {
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(item.id()));
+                continue;
+            }
+            if (written[i] == null) {
+                continue;
+            }
+            ProductResponse response = ProductResponse.fromEntity(written[i]);
+            if (item.operation() == Operation.CREATE) {
+                eventPublisher.publishEvent(ProductChangedEvent.created(response));
+                results[i] = ProductBulkResult.ok(item.index(), item.operation().label(), 201, response.getId());
+            } else {
+                eventPublisher.publishEvent(ProductChangedEvent.updated(response));
+                results[i] = ProductBulkResult.ok(item.index(), item.operation().label(), 200, response.getId());
+            }
+        }
+        return List.of(results);
+    }
+
+    private static ProductBulkResult notFound(Item item) {
+        return ProductBulkResult.failed(item.index(), item.operation().label(), 404, item.id(), "Product not found");
+    }
+
+    /**
+     * Reserves the element's SKU for {@code ownerId} (null for a product not created
+     * yet). Fails if another product holds it, so the element is rejected instead of
+     * the unique index rolling back the whole chunk.
+     */
+    private static boolean claimSku(Map<String, Long> skuOwners, Item item, Long ownerId) {
+        String sku = item.product().getSku();
+        if (sku == null) {
+            return true;
+        }
+        if (skuOwners.containsKey(sku)) {
+            Long owner = skuOwners.get(sku);
+            return owner != null && owner.equals(ownerId);
+        }
+        skuOwners.put(sku, ownerId);
+        return true;
+    }
+
+    private static ProductBulkResult duplicateSku(Item item) {
+        return ProductBulkResult.failed(item.index(), item.operation().label(), 409, item.id(),
+                "SKU already in use: " + item.product().getSku());
+    }
+
+    private static void copy(ProductRequest request, Product product) {
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setStock(request.getStock());
+        product.setImageUrl(request.getImageUrl());
+        product.setSku(request.getSku());
+        product.setActive(request.getActive());
+    }
+}
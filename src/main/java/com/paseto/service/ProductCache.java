@@ -0,0 +1,85 @@
+package com.paseto.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.paseto.dto.CacheStatsResponse;
+import com.paseto.dto.ProductResponse;
+import com.paseto.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of products by id (Caffeine, W-TinyLFU eviction).
+ * Entries are invalidated after the writing transaction commits and expire
+ * after the configured TTL, which also bounds any staleness from a read that
+ * raced a commit.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductResponse> cache;
+
+    public ProductCache(
+            @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+            @Value("${catalog.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached product or loads it. Concurrent misses on the same id
+     * wait for a single load instead of all hitting the database.
+     */
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Returns the cached products among {@code ids} and loads all the misses with
+     * one call to {@code loader}. Ids the loader does not return are left out.
+     */
+    public Map<Long, ProductResponse> getAll(Iterable<Long> ids,
+                                             Function<Set<? extends Long>, Map<Long, ProductResponse>> loader) {
+        return cache.getAll(ids, loader);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    // After OffHeapProductStore, which it loads from, and before ProductJsonCache, which loads from it
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            cache.invalidateAll();
+        } else {
+            invalidate(event.productId());
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                cache.estimatedSize(),
+                stats.requestCount(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadFailureCount(),
+                stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1),
+                stats.evictionCount());
+    }
+}
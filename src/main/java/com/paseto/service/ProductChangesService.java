@@ -0,0 +1,104 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductChanges;
+import com.paseto.dto.ProductResponse;
+import com.paseto.entity.ProductTombstone;
+import com.paseto.repository.ProductRepository;
+import com.paseto.repository.ProductTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync for clients that keep a copy of the catalog: products created or
+ * updated and products deleted since a watermark, oldest first. Writes are
+ * found through idx_products_updated_id, deletes through the tombstones left
+ * by every product delete.
+ *
+ * <p>updated_at is set before commit, so a slow transaction can commit a row
+ * older than rows other readers already saw. Changes newer than the
+ * {@link ChangeHorizon} (catalog.changes.safety-lag, held further back while a
+ * CSV import merges on this instance) wait for a later call. A write transaction
+ * that runs longer than the lag without holding the horizon can still be missed.
+ */
+@Service
+public class ProductChangesService {
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final ChangeHorizon changeHorizon;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ProductChangesService(
+            ProductRepository productRepository,
+            ProductTombstoneRepository productTombstoneRepository,
+            ChangeHorizon changeHorizon,
+            @Value("${catalog.default-page-size:20}") int defaultPageSize,
+            @Value("${catalog.max-page-size:100}") int maxPageSize) {
+        this.productRepository = productRepository;
+        this.productTombstoneRepository = productTombstoneRepository;
+        this.changeHorizon = changeHorizon;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Changes after the watermark {@code since}; without one, the whole catalog.
+     * Up to {@code size} products and {@code size} deletes per call.
+     */
+    @Transactional(readOnly = true)
+    public ProductChanges changesSince(String since, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        LocalDateTime until = changeHorizon.current();
+
+        List<ProductResponse> products;
+        List<ProductTombstone> tombstones;
+        if (since == null || since.isBlank()) {
+            // A client without a copy has nothing to delete
+            products = productRepository.findChangedFirstPage(until, limit);
+            tombstones = List.of();
+        } else {
+            ChangeWatermark from = ChangeWatermark.decode(since);
+            products = productRepository.findChangedAfter(from.updatedAt(), from.productId(), until, limit);
+            tombstones = productTombstoneRepository.findDeletedAfter(from.deletedAt(), from.deletedId(), until, limit);
+        }
+
+        boolean moreProducts = products.size() > pageSize;
+        boolean moreDeletes = tombstones.size() > pageSize;
+        if (moreProducts) {
+            products = products.subList(0, pageSize);
+        }
+        if (moreDeletes) {
+            tombstones = tombstones.subList(0, pageSize);
+        }
+
+        // A list read to its end moves up to until, so the next call skips the range it covered
+        ProductResponse lastProduct = moreProducts ? products.get(products.size() - 1) : null;
+        ProductTombstone lastDelete = moreDeletes ? tombstones.get(tombstones.size() - 1) : null;
+        ChangeWatermark next = new ChangeWatermark(
+                lastProduct != null ? lastProduct.getUpdatedAt() : until,
+                lastProduct != null ? lastProduct.getId() : Long.MAX_VALUE,
+                lastDelete != null ? lastDelete.getDeletedAt() : until,
+                lastDelete != null ? lastDelete.getProductId() : Long.MAX_VALUE);
+
+        List<Long> deletedIds = tombstones.stream().map(ProductTombstone::getProductId).toList();
+        return new ProductChanges(products, deletedIds, next.encode(), moreProducts || moreDeletes);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
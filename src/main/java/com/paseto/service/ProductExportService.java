@@ -0,0 +1,181 @@
+package com.paseto.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Streams the whole product catalog as NDJSON or a JSON array. Rows are read
+ * through a forward-only, read-only cursor and written straight to the output,
+ * without entities or an intermediate list, so memory stays flat.
+ */
+@Slf4j
+@Service
+public class ProductExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT id, name, description, price, stock, image_url, sku, active, created_at, updated_at " +
+            "FROM products ORDER BY id";
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        JSON("application/json");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public ProductExportService(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every product to {@code out}. The read runs in a read-only transaction,
+     * which PostgreSQL needs to honour the fetch size instead of buffering the result.
+     *
+     * @return number of products written
+     */
+    public long export(OutputStream out, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // NDJSON needs a newline after each row instead of the default space separator
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            Long written = readOnlyTransaction.execute(status -> streamRows(generator, format));
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+
+            log.info("Exported {} products as {} in {} ms", written, format, System.currentTimeMillis() - start);
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private Long streamRows(JsonGenerator generator, Format format) {
+        long[] count = {0};
+
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                rs -> {
+                    writeRow(generator, rs);
+                    if (format == Format.NDJSON) {
+                        writeNewline(generator);
+                    }
+                    count[0]++;
+                });
+
+        return count[0];
+    }
+
+    private void writeRow(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("name", rs.getString("name"));
+            generator.writeStringField("description", rs.getString("description"));
+            writeDecimal(generator, "price", rs.getBigDecimal("price"));
+            generator.writeNumberField("stock", rs.getInt("stock"));
+            generator.writeStringField("imageUrl", rs.getString("image_url"));
+            generator.writeStringField("sku", rs.getString("sku"));
+            writeBoolean(generator, "active", rs.getBoolean("active"), rs.wasNull());
+            writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+            writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNewline(JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDecimal(JsonGenerator generator, String field, BigDecimal value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    private void writeBoolean(JsonGenerator generator, String field, boolean value, boolean isNull) throws IOException {
+        if (isNull) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeBooleanField(field, value);
+        }
+    }
+
+    private void writeTimestamp(JsonGenerator generator, String field, Timestamp value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            // Same ISO-8601 shape as ProductResponse's LocalDateTime fields
+            generator.writeStringField(field, value.toLocalDateTime().toString());
+        }
+    }
+}
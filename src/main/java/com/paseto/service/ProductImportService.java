@@ -0,0 +1,410 @@
+package com.paseto.service;
+
+import com.paseto.config.DatabasePlatform;
+import com.paseto.dto.ProductImportRejection;
+import com.paseto.dto.ProductImportResponse;
+import com.paseto.dto.ProductRequest;
+import com.paseto.entity.Product;
+import com.paseto.event.ProductChangedEvent;
+import com.paseto.repository.ProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from CSV, upserting by SKU. The first line is a header
+ * naming the columns (name, price, stock and sku required; description,
+ * image_url and active optional) in any order.
+ *
+ * <p>On PostgreSQL the validated rows are streamed through {@code COPY} into a
+ * temporary staging table and merged with one {@code INSERT ... ON CONFLICT (sku)},
+ * all in one transaction. Other databases get chunked JPA batch writes, one
+ * transaction per chunk. Either way the upload is read record by record and
+ * never held in memory.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private static final Set<String> COLUMNS = Set.of("name", "description", "price", "stock", "image_url", "sku", "active");
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("name", "price", "stock", "sku");
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE product_import (line bigint, name text, description text, price numeric(19, 2), " +
+            "stock integer, image_url text, sku text, active boolean) ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+            "COPY product_import (line, name, description, price, stock, image_url, sku, active) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // One INSERT cannot touch the same row twice, so the last line of a repeated SKU wins.
+    // created_at/updated_at are bound from the JVM clock, the one delta sync compares against.
+    private static final String MERGE_SQL =
+            "WITH upserted AS (" +
+            "  INSERT INTO products (name, description, price, stock, image_url, sku, active, created_at, updated_at)" +
+            "  SELECT DISTINCT ON (sku) name, description, price, stock, image_url, sku, active, ?, ?" +
+            "  FROM product_import ORDER BY sku, line DESC" +
+            "  ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description," +
+            "    price = EXCLUDED.price, stock = EXCLUDED.stock, image_url = EXCLUDED.image_url," +
+            "    active = EXCLUDED.active, updated_at = EXCLUDED.updated_at, version = products.version + 1" +
+            "  RETURNING (xmax = 0) AS inserted" +
+            ") " +
+            "SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM upserted";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final DatabasePlatform databasePlatform;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeHorizon changeHorizon;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final long progressInterval;
+    private final int maxReportedRejections;
+
+    private record ImportRow(long line, ProductRequest product) {}
+
+    public ProductImportService(
+            JdbcTemplate jdbcTemplate,
+            ProductRepository productRepository,
+            DatabasePlatform databasePlatform,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            ChangeHorizon changeHorizon,
+            CatalogVersion catalogVersion,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.bulk.chunk-size:500}") int chunkSize,
+            @Value("${catalog.import.progress-interval:100000}") long progressInterval,
+            @Value("${catalog.import.max-reported-rejections:100}") int maxReportedRejections) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.databasePlatform = databasePlatform;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.changeHorizon = changeHorizon;
+        this.catalogVersion = catalogVersion;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.progressInterval = progressInterval;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Reads the CSV from {@code in} and upserts every valid row. Invalid rows are
+     * counted and reported with their line number; a broken header or an
+     * unterminated quote fails the whole import.
+     */
+    public ProductImportResponse importCsv(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        Map<String, Integer> columns = readHeader(csv);
+        Report report = new Report();
+
+        if (databasePlatform.isPostgreSql()) {
+            copyImport(csv, columns, report);
+        } else {
+            batchImport(csv, columns, report);
+        }
+
+        long elapsedMillis = System.currentTimeMillis() - start;
+        log.info("Imported products from CSV: {} rows, {} rejected, {} inserted, {} updated in {} ms ({} rows/s)",
+                report.rows, report.rejected, report.inserted, report.updated, elapsedMillis,
+                report.rows * 1000 / Math.max(1, elapsedMillis));
+
+        return new ProductImportResponse(report.rows, report.accepted, report.rejected,
+                report.inserted, report.updated, elapsedMillis, report.rejections);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void copyImport(CsvReader csv, Map<String, Integer> columns, Report report) throws IOException {
+        // The merged rows commit long after they are stamped; delta sync must not move past them meanwhile
+        try (ChangeHorizon.Hold hold = changeHorizon.hold()) {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute(CREATE_STAGING_SQL);
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    copyRows(connection.unwrap(PGConnection.class), csv, columns, report);
+                    return null;
+                });
+                Timestamp stampedAt = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+                jdbcTemplate.query(MERGE_SQL, rs -> {
+                    report.inserted = rs.getLong(1);
+                    report.updated = rs.getLong(2);
+                }, stampedAt, stampedAt);
+                catalogVersion.bump();
+                eventPublisher.publishEvent(ProductChangedEvent.bulk());
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the upload was cut off; the transaction is already rolled back
+            throw e.getCause();
+        }
+    }
+
+    private void copyRows(PGConnection connection, CsvReader csv, Map<String, Integer> columns, Report report)
+            throws SQLException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection, COPY_SQL, COPY_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            ImportRow row;
+            while ((row = nextRow(csv, columns, report)) != null) {
+                writeCopyRow(out, row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void batchImport(CsvReader csv, Map<String, Integer> columns, Report report) throws IOException {
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = nextRow(csv, columns, report)) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+    }
+
+    private void writeChunk(List<ImportRow> chunk, Report report) {
+        transaction.executeWithoutResult(status -> {
+            // Last row wins for a repeated SKU, as in the COPY merge
+            Map<String, ProductRequest> bySku = new LinkedHashMap<>();
+            chunk.forEach(row -> bySku.put(row.product().getSku(), row.product()));
+
+            Map<String, Product> existing = productRepository.findBySkuIn(bySku.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getSku, Function.identity(), (first, second) -> first));
+
+            List<Product> products = new ArrayList<>(bySku.size());
+            bySku.forEach((sku, request) -> {
+                Product product = existing.get(sku);
+                if (product == null) {
+                    product = new Product();
+                    report.inserted++;
+                } else {
+                    report.updated++;
+                }
+                copy(request, product);
+                products.add(product);
+            });
+
+            productRepository.saveAll(products);
+            catalogVersion.bump();
+            eventPublisher.publishEvent(ProductChangedEvent.bulk());
+        });
+    }
+
+    /**
+     * Returns the next valid row, recording every invalid one on the way, or null
+     * at the end of the input.
+     */
+    private ImportRow nextRow(CsvReader csv, Map<String, Integer> columns, Report report) throws IOException {
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+
+            report.rows++;
+            if (report.rows % progressInterval == 0) {
+                log.info("CSV import progress: {} rows read, {} rejected", report.rows, report.rejected);
+            }
+
+            try {
+                ImportRow row = new ImportRow(csv.recordLine(), parse(fields, columns));
+                report.accepted++;
+                return row;
+            } catch (IllegalArgumentException e) {
+                report.reject(csv.recordLine(), e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private ProductRequest parse(List<String> fields, Map<String, Integer> columns) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " fields, found " + fields.size());
+        }
+
+        ProductRequest product = new ProductRequest();
+        product.setName(value(fields, columns, "name"));
+        product.setDescription(value(fields, columns, "description"));
+        product.setPrice(decimal(value(fields, columns, "price")));
+        product.setStock(integer(value(fields, columns, "stock")));
+        product.setImageUrl(value(fields, columns, "image_url"));
+        product.setSku(value(fields, columns, "sku"));
+        String active = value(fields, columns, "active");
+        if (active != null) {
+            product.setActive(bool(active));
+        }
+
+        if (product.getSku() == null) {
+            throw new IllegalArgumentException("sku: SKU is required for import");
+        }
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return product;
+    }
+
+    private static Map<String, Integer> readHeader(CsvReader csv) throws IOException {
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header is required");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Spreadsheet exports often start with a UTF-8 byte order mark
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + name);
+            }
+            if (columns.put(name, i) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + name);
+            }
+        }
+
+        Set<String> missing = new TreeSet<>(REQUIRED_COLUMNS);
+        missing.removeAll(columns.keySet());
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing CSV columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    // Absent columns and empty fields are null
+    private static String value(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isBlank() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value) {
+        try {
+            return value == null ? null : new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price: not a number");
+        }
+    }
+
+    private static Integer integer(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("stock: not an integer");
+        }
+    }
+
+    private static Boolean bool(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "1" -> true;
+            case "false", "f", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("active: not a boolean");
+        };
+    }
+
+    private static void writeCopyRow(Writer out, ImportRow row) throws IOException {
+        ProductRequest product = row.product();
+        out.write(Long.toString(row.line()));
+        out.write(',');
+        writeText(out, product.getName());
+        out.write(',');
+        writeText(out, product.getDescription());
+        out.write(',');
+        out.write(product.getPrice().toPlainString());
+        out.write(',');
+        out.write(product.getStock().toString());
+        out.write(',');
+        writeText(out, product.getImageUrl());
+        out.write(',');
+        writeText(out, product.getSku());
+        out.write(',');
+        out.write(Boolean.FALSE.equals(product.getActive()) ? "f" : "t");
+        out.write('\n');
+    }
+
+    // Quoted so commas, quotes and line breaks survive; an unquoted empty field is NULL in COPY csv
+    private static void writeText(Writer out, String value) throws IOException {
+        if (value != null) {
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private static void copy(ProductRequest request, Product product) {
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setStock(request.getStock());
+        product.setImageUrl(request.getImageUrl());
+        product.setSku(request.getSku());
+        product.setActive(request.getActive());
+    }
+
+    /**
+     * Counters of one import.
+     */
+    private final class Report {
+        long rows;
+        long accepted;
+        long rejected;
+        long inserted;
+        long updated;
+        final List<ProductImportRejection> rejections = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new ProductImportRejection(line, reason));
+            }
+        }
+    }
+}
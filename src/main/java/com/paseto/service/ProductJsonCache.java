@@ -0,0 +1,81 @@
+package com.paseto.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paseto.dto.EntityResponse;
+import com.paseto.dto.ProductResponse;
+import com.paseto.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * {@code GET /api/products/{id}} bodies rendered once to UTF-8 JSON, so a repeat
+ * read is a byte copy to the response instead of a new envelope serialized again.
+ *
+ * <p>Rendered with the JSON mapper Spring MVC writes responses with, so the bytes
+ * are what the message converter would have produced. Bounded by the total size
+ * of the bodies (catalog.cache.json-maximum-bytes) and invalidated with
+ * {@link ProductCache}: after the writing transaction commits, or on expiry.
+ */
+@Component
+public class ProductJsonCache {
+
+    /**
+     * A rendered body and the version it was rendered from, which the caller
+     * turns into the ETag without looking at the body.
+     */
+    public record Rendered(Long id, Long version, byte[] body) {}
+
+    private final JsonMapper jsonMapper;
+    private final Cache<Long, Rendered> cache;
+
+    public ProductJsonCache(
+            JsonMapper jsonMapper,
+            @Value("${catalog.cache.json-maximum-bytes:32MB}") DataSize maximumBytes,
+            @Value("${catalog.cache.ttl:10m}") Duration ttl) {
+        this.jsonMapper = jsonMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes.toBytes())
+                .weigher((Long id, Rendered rendered) -> rendered.body().length)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the rendered body of a product, rendering it from {@code loader} on
+     * a miss. A loader that throws (e.g. product not found) caches nothing.
+     */
+    public Rendered get(Long id, Function<Long, ProductResponse> loader) {
+        return cache.get(id, key -> render(loader.apply(key)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    // After ProductCache: a body rendered in between would come from the stale cached product
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Stock is part of the body, so stock moves invalidate too
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            cache.invalidateAll();
+        } else {
+            invalidate(event.productId());
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private Rendered render(ProductResponse product) {
+        byte[] body = jsonMapper.writeValueAsBytes(EntityResponse.of(200, "Product found", product));
+        return new Rendered(product.getId(), product.getVersion(), body);
+    }
+}
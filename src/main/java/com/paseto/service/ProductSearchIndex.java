@@ -0,0 +1,444 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process substring search over product name, SKU and description.
+ * Each field is split into trigrams; every trigram maps to a sorted int array of
+ * document ids. A query intersects the posting lists of its trigrams and then
+ * verifies and scores the surviving candidates.
+ *
+ * <p>Built at startup by streaming {@code products}, then kept current from
+ * {@link ProductChangedEvent}s. Updates append a new document and tombstone the
+ * old one; the index compacts itself once tombstones pile up. Each document keeps
+ * the product version it was indexed from, so a change older than that (events
+ * arriving out of order, or replayed over a build that already read the newer row)
+ * is ignored. A bulk change rebuilds the index in the background.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int COMPACT_MIN_DELETED = 1024;
+    private static final long NO_VERSION = -1;
+
+    private static final String LOAD_SQL = "SELECT id, name, sku, description, version FROM products";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int fetchSize;
+    private final int parallelThreshold;
+    private final ForkJoinPool scoringPool;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Segment segment = new Segment();
+    // Non-null while a rebuild is streaming rows; changes seen meanwhile are replayed on the new segment
+    private List<ProductChangedEvent> pendingChanges;
+
+    private volatile boolean ready;
+    // Bumped by every bulk change; a build that overlapped one is not trusted
+    private final AtomicLong bulkChanges = new AtomicLong();
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("search-index-rebuild").factory());
+
+    private record Hit(long productId, int score) {}
+
+    public ProductSearchIndex(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.search-index.enabled:false}") boolean enabled,
+            @Value("${catalog.export.fetch-size:1000}") int fetchSize,
+            @Value("${catalog.search-index.parallel-threshold:20000}") int parallelThreshold,
+            @Value("${catalog.search-index.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+        this.parallelThreshold = parallelThreshold;
+        this.scoringPool = enabled && parallelThreshold > 0
+                ? new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors())
+                : null;
+    }
+
+    /**
+     * True once the initial build finished; until then callers should use the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns ids of products whose name, SKU or description contains {@code query}
+     * (case-insensitive), best match first: name prefix, then name, SKU, description.
+     */
+    public List<Long> search(String query, int maxResults) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || maxResults <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            int[] candidates = needle.length() < GRAM ? current.liveDocs() : current.candidates(needle);
+
+            List<Hit> hits;
+            if (scoringPool != null && candidates.length >= parallelThreshold) {
+                hits = scoringPool.submit(() -> score(current, candidates, needle).parallel().toList()).join();
+            } else {
+                hits = score(current, candidates, needle).toList();
+            }
+
+            return hits.stream()
+                    .sorted(Comparator.comparingInt(Hit::score).reversed()
+                            .thenComparing(Comparator.comparingLong(Hit::productId).reversed()))
+                    .limit(maxResults)
+                    .map(Hit::productId)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Before CatalogVersion bumps, so a new list ETag never covers stale results
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.type() == ProductChangedEvent.Type.STOCK) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            // Too many rows to replay one by one; search the database until a fresh build lands
+            bulkChanges.incrementAndGet();
+            ready = false;
+            rebuildExecutor.execute(this::rebuild);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(segment, event);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs after DataInitializer so seeded products are included
+    @Order
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams all products into a fresh segment and swaps it in. Queries keep
+     * using the previous segment until the swap.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long bulkChangesSeen = bulkChanges.get();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement(
+                                LOAD_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        return statement;
+                    },
+                    rs -> {
+                        fresh.add(rs.getLong("id"), version(rs.getObject("version", Long.class)),
+                                rs.getString("name"), rs.getString("sku"), rs.getString("description"));
+                    }));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to build product search index", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (ProductChangedEvent event : pendingChanges) {
+                apply(fresh, event);
+            }
+            pendingChanges = null;
+            segment = fresh;
+            // A bulk change during the build already queued the next one
+            ready = bulkChangesSeen == bulkChanges.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Built product search index: {} products, {} trigrams, {} postings in {} ms",
+                fresh.liveCount(), fresh.postings.size(), fresh.postingCount(), System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+        if (scoringPool != null) {
+            scoringPool.shutdown();
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private static Stream<Hit> score(Segment segment, int[] candidates, String needle) {
+        return IntStream.of(candidates)
+                .mapToObj(doc -> segment.score(doc, needle))
+                .filter(Objects::nonNull);
+    }
+
+    private static void apply(Segment target, ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            target.remove(event.productId());
+        } else {
+            ProductResponse product = event.product();
+            long version = version(product.getVersion());
+            if (version < target.versionOf(product.getId())) {
+                return;
+            }
+            target.add(product.getId(), version, product.getName(), product.getSku(), product.getDescription());
+        }
+    }
+
+    private static long version(Long version) {
+        return version == null ? NO_VERSION : version;
+    }
+
+    private void compactIfNeeded() {
+        if (segment.deletedCount >= COMPACT_MIN_DELETED && segment.deletedCount > segment.docCount / 4) {
+            segment = segment.compacted();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Growable sorted array of document ids. Ids are appended in increasing order,
+     * so adding the same document twice in a row is the only duplicate to skip.
+     */
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+
+        /**
+         * Keeps the ids of {@code candidates} that are also in this list.
+         */
+        int[] retainAll(int[] candidates) {
+            int[] result = new int[Math.min(candidates.length, size)];
+            int i = 0;
+            int j = 0;
+            int matched = 0;
+            while (i < candidates.length && j < size) {
+                if (candidates[i] < docs[j]) {
+                    i++;
+                } else if (candidates[i] > docs[j]) {
+                    j++;
+                } else {
+                    result[matched++] = candidates[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, matched);
+        }
+    }
+
+    private static final class Segment {
+        final Map<Long, PostingList> postings = new HashMap<>();
+        final Map<Long, Integer> docsByProductId = new HashMap<>();
+        final BitSet deleted = new BitSet();
+
+        long[] productIds = new long[1024];
+        long[] versions = new long[1024];
+        String[] names = new String[1024];
+        String[] skus = new String[1024];
+        String[] descriptions = new String[1024];
+        int docCount;
+        int deletedCount;
+
+        void add(long productId, long version, String name, String sku, String description) {
+            remove(productId);
+
+            int doc = docCount++;
+            if (doc == productIds.length) {
+                int capacity = productIds.length * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                names = Arrays.copyOf(names, capacity);
+                skus = Arrays.copyOf(skus, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+
+            productIds[doc] = productId;
+            versions[doc] = version;
+            names[doc] = normalize(name);
+            skus[doc] = normalize(sku);
+            descriptions[doc] = normalize(description);
+            docsByProductId.put(productId, doc);
+
+            indexField(doc, names[doc]);
+            indexField(doc, skus[doc]);
+            indexField(doc, descriptions[doc]);
+        }
+
+        long versionOf(long productId) {
+            Integer doc = docsByProductId.get(productId);
+            return doc == null ? NO_VERSION : versions[doc];
+        }
+
+        void remove(long productId) {
+            Integer doc = docsByProductId.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            deleted.set(doc);
+            deletedCount++;
+            names[doc] = null;
+            skus[doc] = null;
+            descriptions[doc] = null;
+        }
+
+        int[] candidates(String needle) {
+            List<PostingList> lists = new ArrayList<>();
+            for (int i = 0; i + GRAM <= needle.length(); i++) {
+                PostingList list = postings.get(trigram(needle, i));
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+
+            // Intersect smallest first so the working set only shrinks
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] result = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).retainAll(result);
+            }
+            return result;
+        }
+
+        int[] liveDocs() {
+            return IntStream.range(0, docCount).filter(doc -> !deleted.get(doc)).toArray();
+        }
+
+        Hit score(int doc, String needle) {
+            if (deleted.get(doc)) {
+                return null;
+            }
+
+            int score = 0;
+            if (names[doc].contains(needle)) {
+                score += names[doc].startsWith(needle) ? 4 : 3;
+            }
+            if (skus[doc].contains(needle)) {
+                score += 2;
+            }
+            if (descriptions[doc].contains(needle)) {
+                score += 1;
+            }
+            // Trigram candidates can be false positives, e.g. grams spread across the text
+            return score == 0 ? null : new Hit(productIds[doc], score);
+        }
+
+        int liveCount() {
+            return docCount - deletedCount;
+        }
+
+        long postingCount() {
+            return postings.values().stream().mapToLong(list -> list.size).sum();
+        }
+
+        Segment compacted() {
+            Segment copy = new Segment();
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!deleted.get(doc)) {
+                    copy.add(productIds[doc], versions[doc], names[doc], skus[doc], descriptions[doc]);
+                }
+            }
+            return copy;
+        }
+
+        private void indexField(int doc, String text) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                postings.computeIfAbsent(trigram(text, i), key -> new PostingList()).add(doc);
+            }
+        }
+    }
+}
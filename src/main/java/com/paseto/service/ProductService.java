@@ -1,13 +1,41 @@
 package com.paseto.service;
 
+import com.paseto.config.DatabasePlatform;
+import com.paseto.dto.CacheStatsResponse;
+import com.paseto.dto.ProductFilter;
+import com.paseto.dto.ProductLookup;
+import com.paseto.dto.ProductPage;
 import com.paseto.dto.ProductRequest;
 import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductStoreStatsResponse;
+import com.paseto.dto.ProductSuggestion;
+import com.paseto.dto.ProductSummaryResponse;
 import com.paseto.entity.Product;
+import com.paseto.event.ProductChangedEvent;
+import com.paseto.exception.PreconditionFailedException;
 import com.paseto.repository.ProductRepository;
+import com.paseto.repository.ProductSort;
+import com.paseto.repository.ProductTombstoneRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,19 +43,135 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final DatabasePlatform databasePlatform;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggester productSuggester;
+    private final ProductCache productCache;
+    private final ProductJsonCache productJsonCache;
+    private final OffHeapProductStore offHeapProductStore;
+    private final CatalogVersion catalogVersion;
 
+    // JSON names of ProductResponse, which are also the entity's attribute names
+    private static final Set<String> PRODUCT_FIELDS = Set.of("id", "name", "description", "price", "stock",
+            "imageUrl", "sku", "active", "createdAt", "updatedAt", "version");
+
+    @Value("${catalog.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${catalog.lookup.max-ids:100}")
+    private int maxLookupIds;
+
+    @Transactional(readOnly = true)
     public List<ProductResponse> findAll() {
-        return productRepository.findAll().stream()
-                .map(ProductResponse::fromEntity)
-                .collect(Collectors.toList());
+        return productRepository.findAllResponses();
+    }
+
+    /**
+     * Returns one page of products, newest first, starting after the given cursor.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductResponse> findPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ProductResponse> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = productRepository.findFirstPage(limit);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.findPageAfter(after.createdAt(), after.id(), limit);
+        }
+        return toPage(products, pageSize, product -> new ProductCursor(product.getCreatedAt(), product.getId()).encode());
+    }
+
+    /**
+     * Same pages as {@link #findPage} without descriptions. The rows come straight
+     * from the covering listing index on PostgreSQL.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductSummaryResponse> findSummaryPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ProductSummaryResponse> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = productRepository.findSummaryFirstPage(limit);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit);
+        }
+        return toPage(products, pageSize, product -> new ProductCursor(product.getCreatedAt(), product.getId()).encode());
     }
 
+    // No transaction here: cache hits never touch a connection, and the loader's
+    // single projection query carries its own read-only transaction
     public ProductResponse findById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
-        return ProductResponse.fromEntity(product);
+        return productCache.get(id, this::loadProduct);
+    }
+
+    /**
+     * The product's {@code GET /api/products/{id}} body, already rendered to JSON.
+     * A miss renders it from {@link #findById}, so it still shares that cache.
+     */
+    public ProductJsonCache.Rendered findRenderedById(Long id) {
+        return productJsonCache.get(id, this::findById);
     }
 
+    /**
+     * Products by id in the order requested, e.g. for a cart or wishlist. Cached
+     * products come from memory and every miss is loaded by one query; ids without
+     * a product are reported instead of failing the whole lookup. Repeated ids are
+     * returned once.
+     */
+    // No transaction here either: the bulk loader's query carries its own
+    public ProductLookup findByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one product id is required");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.contains(null)) {
+            throw new IllegalArgumentException("Product ids must not be empty");
+        }
+        if (requested.size() > maxLookupIds) {
+            throw new IllegalArgumentException("At most " + maxLookupIds + " product ids per lookup");
+        }
+
+        Map<Long, ProductResponse> found = productCache.getAll(requested, this::loadProducts);
+        List<ProductResponse> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductResponse product = found.get(id);
+            if (product != null) {
+                items.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ProductLookup(items, missingIds);
+    }
+
+    /**
+     * Version of the whole catalog; changes after every committed product write.
+     */
+    public long catalogVersion() {
+        return catalogVersion.current();
+    }
+
+    public CacheStatsResponse cacheStats() {
+        return productCache.stats();
+    }
+
+    public ProductStoreStatsResponse storeStats() {
+        return offHeapProductStore.stats();
+    }
+
+    @Transactional
     public ProductResponse create(ProductRequest request) {
         Product product = new Product();
         product.setName(request.getName());
@@ -39,34 +183,304 @@ public class ProductService {
         product.setActive(request.getActive());
 
         product = productRepository.save(product);
-        return ProductResponse.fromEntity(product);
+        catalogVersion.bump();
+        ProductResponse response = ProductResponse.fromEntity(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(response));
+        return response;
     }
 
-    public ProductResponse update(Long id, ProductRequest request) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
-
-        product.setName(request.getName());
-        product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
-        product.setStock(request.getStock());
-        product.setImageUrl(request.getImageUrl());
-        product.setSku(request.getSku());
-        product.setActive(request.getActive());
+    /**
+     * Overwrites a product with one conditional UPDATE, without reading it first.
+     * On PostgreSQL the new row comes back from the same statement; elsewhere it is
+     * read afterwards.
+     *
+     * @param expectedVersion version from If-Match, or null to update whatever is stored
+     * @throws PreconditionFailedException if the product is no longer at {@code expectedVersion}
+     */
+    @Transactional
+    public ProductResponse update(Long id, ProductRequest request, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ProductResponse> updated;
+        if (databasePlatform.isPostgreSql()) {
+            updated = productRepository.updateReturning(id, expectedVersion, request, now).map(ProductResponse::fromEntity);
+        } else {
+            updated = productRepository.updateIfVersion(id, expectedVersion, request, now) == 0
+                    ? Optional.empty()
+                    : productRepository.findResponseById(id);
+        }
 
-        product = productRepository.save(product);
-        return ProductResponse.fromEntity(product);
+        // Nothing matched: only now is it worth a query to tell a stale version from a missing row
+        ProductResponse response = updated.orElseThrow(() -> expectedVersion != null && productRepository.existsById(id)
+                ? new PreconditionFailedException("Product was modified since version " + expectedVersion)
+                : new IllegalArgumentException("Product not found"));
+        catalogVersion.bump();
+        eventPublisher.publishEvent(ProductChangedEvent.updated(response));
+        return response;
     }
 
+    // The tombstone commits with the delete, so delta sync clients learn of it
+    @Transactional
     public void delete(Long id) {
         if (!productRepository.existsById(id)) {
             throw new IllegalArgumentException("Product not found");
         }
+        productTombstoneRepository.recordDeletes(List.of(id), LocalDateTime.now());
         productRepository.deleteById(id);
+        catalogVersion.bump();
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
+    @Transactional(readOnly = true)
     public List<ProductResponse> searchByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name).stream()
+        return productRepository.findResponsesByNameContaining(name);
+    }
+
+    /**
+     * Returns one page of products whose name contains {@code name}, newest first.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductResponse> searchPage(String name, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ProductResponse> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = productRepository.searchFirstPage(name, limit);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.searchPageAfter(name, after.createdAt(), after.id(), limit);
+        }
+        return toPage(products, pageSize, product -> new ProductCursor(product.getCreatedAt(), product.getId()).encode());
+    }
+
+    /**
+     * Products matching every given filter in the requested order, one keyset page
+     * at a time. Each filter maps to an indexed column.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductResponse> query(ProductFilter filter, String sort, String cursor, Integer size) {
+        requireValidPriceRange(filter);
+        ProductSort order = ProductSort.from(sort);
+        int pageSize = resolvePageSize(size);
+
+        List<ProductResponse> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = productRepository.findFiltered(filter, order, null, null, pageSize + 1);
+        } else {
+            FilterCursor after = FilterCursor.decode(cursor, order);
+            products = productRepository.findFiltered(filter, order, after.key(), after.id(), pageSize + 1);
+        }
+        return toPage(products, pageSize,
+                product -> new FilterCursor(order, order.keyOf(product), product.getId()).encode());
+    }
+
+    /**
+     * {@link #findPage} with only the requested fields. Only their columns are read,
+     * plus created_at and id for the cursor; same cursors as {@link #findPage}.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<Map<String, Object>> findPageFields(String fields, String cursor, Integer size) {
+        Set<String> requested = FieldSelection.parse(fields, PRODUCT_FIELDS);
+        int pageSize = resolvePageSize(size);
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+
+        List<Map<String, Object>> rows = productRepository.findFilteredFields(new ProductFilter(), ProductSort.NEWEST,
+                after == null ? null : after.createdAt(), after == null ? null : after.id(),
+                pageSize + 1, withCursorKeys(requested, ProductSort.NEWEST));
+        return toFieldsPage(rows, pageSize, requested,
+                row -> new ProductCursor((LocalDateTime) row.get("createdAt"), (Long) row.get("id")).encode());
+    }
+
+    /**
+     * {@link #query} with only the requested fields read and returned.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<Map<String, Object>> queryFields(ProductFilter filter, String sort, String fields,
+                                                        String cursor, Integer size) {
+        Set<String> requested = FieldSelection.parse(fields, PRODUCT_FIELDS);
+        requireValidPriceRange(filter);
+        ProductSort order = ProductSort.from(sort);
+        int pageSize = resolvePageSize(size);
+        FilterCursor after = cursor == null || cursor.isBlank() ? null : FilterCursor.decode(cursor, order);
+
+        List<Map<String, Object>> rows = productRepository.findFilteredFields(filter, order,
+                after == null ? null : after.key(), after == null ? null : after.id(),
+                pageSize + 1, withCursorKeys(requested, order));
+        return toFieldsPage(rows, pageSize, requested,
+                row -> new FilterCursor(order, (Comparable<?>) row.get(order.attribute()), (Long) row.get("id")).encode());
+    }
+
+    /**
+     * Ranked full-text search over name and description, best match first.
+     * Uses the indexed search_vector column on PostgreSQL; other databases fall
+     * back to the case-insensitive name match.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductResponse> fullTextSearch(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+
+        int pageSize = resolvePageSize(size);
+        int offset = cursor == null || cursor.isBlank() ? 0 : decodeOffset(cursor);
+
+        List<Product> products = databasePlatform.isPostgreSql()
+                ? productRepository.fullTextSearch(query, pageSize + 1, offset)
+                : productRepository.nameContainsSearch(query, pageSize + 1, offset);
+
+        return toOffsetPage(toResponses(products), offset, pageSize);
+    }
+
+    /**
+     * Substring search over name, SKU and description served from the in-memory
+     * trigram index, best match first. Until the index is built (or when it is
+     * disabled) the same page comes from the database name match.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductResponse> substringSearch(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+
+        int pageSize = resolvePageSize(size);
+        int offset = cursor == null || cursor.isBlank() ? 0 : decodeOffset(cursor);
+
+        if (!productSearchIndex.isReady()) {
+            List<Product> products = productRepository.nameContainsSearch(query, pageSize + 1, offset);
+            return toOffsetPage(toResponses(products), offset, pageSize);
+        }
+
+        List<Long> ids = productSearchIndex.search(query, offset + pageSize + 1);
+        List<Long> pageIds = ids.subList(Math.min(offset, ids.size()), ids.size());
+        if (pageIds.isEmpty()) {
+            return new ProductPage<>(List.of(), null);
+        }
+
+        // Primary key lookups only; keep the index order
+        Map<Long, ProductResponse> productsById = productRepository.findResponsesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        List<ProductResponse> products = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return toOffsetPage(products, offset, pageSize);
+    }
+
+    /**
+     * Name completions for a search box, newest products first. Served from memory.
+     */
+    public List<ProductSuggestion> suggest(String prefix, Integer limit) {
+        return productSuggester.suggest(prefix, limit);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    // The off-heap store answers when it is on; anything it lacks still goes to the database
+    private ProductResponse loadProduct(Long id) {
+        if (offHeapProductStore.isReady()) {
+            ProductResponse stored = offHeapProductStore.find(id);
+            if (stored != null) {
+                return stored;
+            }
+        }
+        return productRepository.findResponseById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+    }
+
+    // All cache misses of a lookup in one statement; PostgreSQL binds them as a single array
+    private Map<Long, ProductResponse> loadProducts(Set<? extends Long> ids) {
+        boolean storeReady = offHeapProductStore.isReady();
+        Map<Long, ProductResponse> found = new HashMap<>();
+        List<Long> remaining = new ArrayList<>();
+        for (Long id : ids) {
+            ProductResponse stored = storeReady ? offHeapProductStore.find(id) : null;
+            if (stored != null) {
+                found.put(id, stored);
+            } else {
+                remaining.add(id);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return found;
+        }
+
+        List<ProductResponse> products = databasePlatform.isPostgreSql()
+                ? toResponses(productRepository.findAllByIdArray(remaining.toArray(Long[]::new)))
+                : productRepository.findResponsesByIdIn(remaining);
+        products.forEach(product -> found.put(product.getId(), product));
+        return found;
+    }
+
+    private static void requireValidPriceRange(ProductFilter filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    // The sort key and id are read even when not requested: the next cursor is built from them
+    private static Set<String> withCursorKeys(Set<String> requested, ProductSort sort) {
+        Set<String> attributes = new LinkedHashSet<>(requested);
+        attributes.add(sort.attribute());
+        attributes.add("id");
+        return attributes;
+    }
+
+    private ProductPage<Map<String, Object>> toFieldsPage(List<Map<String, Object>> rows, int pageSize,
+                                                          Set<String> requested,
+                                                          Function<Map<String, Object>, String> cursorOf) {
+        ProductPage<Map<String, Object>> page = toPage(rows, pageSize, cursorOf);
+        page.getItems().forEach(row -> row.keySet().retainAll(requested));
+        return page;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Ranked results have no stable keyset, so their cursor wraps a row offset
+    private static String encodeOffset(int offset) {
+        byte[] raw = ("offset|" + offset).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    private static int decodeOffset(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("offset|")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int offset = Integer.parseInt(raw.substring("offset|".length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private ProductPage<ProductResponse> toOffsetPage(List<ProductResponse> products, int offset, int pageSize) {
+        boolean hasMore = products.size() > pageSize;
+        List<ProductResponse> items = hasMore ? products.subList(0, pageSize) : products;
+        return new ProductPage<>(items, hasMore ? encodeOffset(offset + pageSize) : null);
+    }
+
+    private <T> ProductPage<T> toPage(List<T> products, int pageSize, Function<T, String> cursorOf) {
+        boolean hasMore = products.size() > pageSize;
+        List<T> items = hasMore ? products.subList(0, pageSize) : products;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new ProductPage<>(items, nextCursor);
+    }
+
+    private static List<ProductResponse> toResponses(List<Product> products) {
+        return products.stream()
                 .map(ProductResponse::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,234 @@
+package com.paseto.service;
+
+import com.paseto.dto.StockResponse;
+import com.paseto.event.ProductChangedEvent;
+import com.paseto.exception.InsufficientStockException;
+import com.paseto.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserves and releases product stock. Each change is one guarded UPDATE
+ * ({@code stock = stock - ? WHERE id = ? AND stock >= ?}), so concurrent orders
+ * can never take stock below zero and nothing is read or locked first.
+ *
+ * <p>Products whose SKU is listed in catalog.stock.hot-skus (flash sales) are
+ * served from an in-memory {@link StripedStock} instead. Stock is leased from
+ * the row in blocks of catalog.stock.lease-size with the same guarded UPDATE,
+ * reservations and releases then only touch memory, and unsold units go back
+ * to the row every catalog.stock.reconcile-interval and on shutdown. Until
+ * then the row understates the stock by the leased units, and a crash loses
+ * them until the stock is corrected. Leases are per instance.
+ */
+@Slf4j
+@Service
+public class ProductStockService {
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final Set<String> hotSkus;
+    private final int leaseSize;
+    private final int stripes;
+
+    // Leased units per hot product, and which ids carry a hot SKU
+    private final ConcurrentMap<Long, StripedStock> leases = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Boolean> hotProducts = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService reconciler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("stock-reconcile").factory());
+
+    public ProductStockService(
+            ProductRepository productRepository,
+            CatalogVersion catalogVersion,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.stock.hot-skus:}") Set<String> hotSkus,
+            @Value("${catalog.stock.lease-size:100}") int leaseSize,
+            @Value("${catalog.stock.stripes:0}") int stripes,
+            @Value("${catalog.stock.reconcile-interval:1s}") Duration reconcileInterval) {
+        this.productRepository = productRepository;
+        this.catalogVersion = catalogVersion;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.hotSkus = Set.copyOf(hotSkus);
+        this.leaseSize = leaseSize;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+
+        if (!this.hotSkus.isEmpty()) {
+            long millis = reconcileInterval.toMillis();
+            reconciler.scheduleWithFixedDelay(this::reconcile, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units of the product's stock.
+     *
+     * @throws InsufficientStockException if fewer units are left
+     */
+    public StockResponse reserve(Long id, int quantity) {
+        requirePositive(quantity);
+        if (isHot(id)) {
+            reserveFromLease(id, quantity);
+        } else if (!reserveInDatabase(id, quantity)) {
+            throw notReserved(id, quantity);
+        }
+        return new StockResponse(id, quantity);
+    }
+
+    /**
+     * Puts {@code quantity} units back, e.g. for a cancelled order.
+     */
+    public StockResponse release(Long id, int quantity) {
+        requirePositive(quantity);
+        if (isHot(id)) {
+            leases.computeIfAbsent(id, key -> new StripedStock(stripes)).add(quantity);
+        } else if (!releaseInDatabase(id, quantity)) {
+            throw new IllegalArgumentException("Product not found");
+        }
+        return new StockResponse(id, quantity);
+    }
+
+    /**
+     * Returns every unsold leased unit to its row.
+     */
+    public void reconcile() {
+        for (Map.Entry<Long, StripedStock> entry : leases.entrySet()) {
+            Long id = entry.getKey();
+            StripedStock lease = entry.getValue();
+            // Reservers that run dry wait here rather than lease again mid-return
+            synchronized (lease) {
+                long units = lease.drain();
+                if (units == 0) {
+                    continue;
+                }
+                try {
+                    if (!releaseInDatabase(id, Math.toIntExact(units))) {
+                        log.warn("Dropped {} leased units of deleted product {}", units, id);
+                    }
+                } catch (RuntimeException e) {
+                    lease.add(units);
+                    log.warn("Could not return {} leased units of product {}, will retry", units, id, e);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            hotProducts.clear();
+        } else if (event.type() != ProductChangedEvent.Type.STOCK) {
+            // The SKU may have changed; look it up again on the next reservation
+            hotProducts.remove(event.productId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciler.shutdownNow();
+        reconcile();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void reserveFromLease(Long id, int quantity) {
+        StripedStock lease = leases.computeIfAbsent(id, key -> new StripedStock(stripes));
+        if (lease.tryTake(quantity)) {
+            return;
+        }
+
+        // One thread refills at a time; the others find the new units when they get the monitor
+        synchronized (lease) {
+            if (lease.tryTake(quantity)) {
+                return;
+            }
+            lease.consolidate();
+            if (lease.tryTake(quantity)) {
+                return;
+            }
+
+            // A full block while the row has one, then whatever covers this reservation
+            int block = Math.max(leaseSize, quantity);
+            if (reserveInDatabase(id, block)) {
+                lease.add(block - quantity);
+                return;
+            }
+            if (block > quantity && reserveInDatabase(id, quantity)) {
+                return;
+            }
+        }
+        throw notReserved(id, quantity);
+    }
+
+    private boolean reserveInDatabase(Long id, int quantity) {
+        return Boolean.TRUE.equals(transaction.execute(status -> {
+            if (productRepository.reserveStock(id, quantity, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            catalogVersion.bump();
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+            return true;
+        }));
+    }
+
+    private boolean releaseInDatabase(Long id, int quantity) {
+        return Boolean.TRUE.equals(transaction.execute(status -> {
+            if (productRepository.releaseStock(id, quantity, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            catalogVersion.bump();
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+            return true;
+        }));
+    }
+
+    private boolean isHot(Long id) {
+        if (hotSkus.isEmpty()) {
+            return false;
+        }
+        Boolean hot = hotProducts.get(id);
+        if (hot == null) {
+            Optional<String> sku = productRepository.findSkuById(id);
+            if (sku.isEmpty()) {
+                // Unknown ids are not remembered; the database path reports them
+                return false;
+            }
+            hot = hotSkus.contains(sku.get());
+            hotProducts.put(id, hot);
+        }
+        return hot;
+    }
+
+    // Only a failed reservation pays for the query telling "sold out" from "no such product"
+    private RuntimeException notReserved(Long id, int quantity) {
+        if (!productRepository.existsById(id)) {
+            return new IllegalArgumentException("Product not found");
+        }
+        return new InsufficientStockException("Not enough stock to reserve " + quantity + " of product " + id);
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductSuggestion;
+import com.paseto.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prefix autocomplete over product names, answered from memory.
+ *
+ * <p>Names are kept in an immutable snapshot sorted by lowercase name, so the
+ * completions of a prefix form one contiguous range found by binary search. A
+ * segment tree over the weights (newest products weigh most) yields the top N
+ * of that range without scanning it. Product changes update a map of entries
+ * and queue a background rebuild; readers never block.
+ */
+@Slf4j
+@Component
+public class ProductSuggester {
+
+    private static final String LOAD_SQL = "SELECT id, name, created_at, version FROM products";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final int maxResults;
+
+    // Latest name and weight per product, never replaced by an older version; snapshots are built from this
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    // Non-null while a load is streaming rows; deletes seen meanwhile are dropped again afterwards
+    private volatile Set<Long> deletedDuringLoad;
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("suggest-rebuild").factory());
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    private record Entry(long productId, String name, String key, long weight, long version) {}
+
+    public ProductSuggester(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.export.fetch-size:1000}") int fetchSize,
+            @Value("${catalog.suggest.max-results:10}") int maxResults) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Returns up to {@code limit} products whose name starts with {@code prefix}
+     * (case-insensitive), newest first. {@code limit} is capped at catalog.suggest.max-results.
+     */
+    public List<ProductSuggestion> suggest(String prefix, Integer limit) {
+        String key = prefix == null ? "" : prefix.stripLeading().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Prefix must not be blank");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+
+        int count = limit == null ? maxResults : Math.min(limit, maxResults);
+        return snapshot.top(key, count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.STOCK) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            rebuildExecutor.execute(this::reload);
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            Set<Long> deleted = deletedDuringLoad;
+            if (deleted != null) {
+                deleted.add(event.productId());
+            }
+            entries.remove(event.productId());
+        } else {
+            ProductResponse product = event.product();
+            // Events are not delivered in commit order
+            entries.merge(product.getId(),
+                    entry(product.getId(), product.getName(), product.getCreatedAt(), product.getVersion()),
+                    ProductSuggester::newer);
+        }
+        queueRebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        Set<Long> deleted = ConcurrentHashMap.newKeySet();
+        deletedDuringLoad = deleted;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement(
+                                LOAD_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        return statement;
+                    },
+                    rs -> {
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        long id = rs.getLong("id");
+                        // A change event seen during the load may be newer than the row
+                        entries.merge(id, entry(id, rs.getString("name"),
+                                createdAt == null ? null : createdAt.toLocalDateTime(),
+                                rs.getObject("version", Long.class)), ProductSuggester::newer);
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Failed to load product names for suggestions", e);
+            return;
+        } finally {
+            deletedDuringLoad = null;
+        }
+
+        // A row read before its delete committed must not outlive the delete event
+        deleted.forEach(entries::remove);
+        rebuild();
+        log.info("Loaded {} product names for suggestions in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replaces all entries with a fresh read of the table. Readers keep the
+     * current snapshot until the reload rebuilds it.
+     */
+    public void reload() {
+        entries.clear();
+        load();
+    }
+
+    /**
+     * Builds a new snapshot from the current entries and publishes it.
+     */
+    public synchronized void rebuild() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparing(Entry::key).thenComparing(Entry::productId));
+        snapshot = new Snapshot(sorted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    /**
+     * Coalesces bursts of writes into one rebuild; a change that lands while a
+     * rebuild runs queues the next one.
+     */
+    private void queueRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    private static Entry entry(long productId, String name, LocalDateTime createdAt, Long version) {
+        String value = name == null ? "" : name;
+        long weight = createdAt == null ? 0 : createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return new Entry(productId, value, value.toLowerCase(Locale.ROOT), weight, version == null ? -1 : version);
+    }
+
+    private static Entry newer(Entry existing, Entry incoming) {
+        return incoming.version() < existing.version() ? existing : incoming;
+    }
+
+    /**
+     * Immutable sorted arrays plus a segment tree holding, per node, the position
+     * of the heaviest entry below it.
+     */
+    private static final class Snapshot {
+        private final int size;
+        private final String[] keys;
+        private final String[] names;
+        private final long[] productIds;
+        private final long[] weights;
+        private final int[] tree;
+
+        Snapshot(List<Entry> sorted) {
+            size = sorted.size();
+            keys = new String[size];
+            names = new String[size];
+            productIds = new long[size];
+            weights = new long[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = sorted.get(i);
+                keys[i] = entry.key();
+                names[i] = entry.name();
+                productIds[i] = entry.productId();
+                weights[i] = entry.weight();
+            }
+
+            tree = new int[Math.max(2 * size, 1)];
+            for (int i = 0; i < size; i++) {
+                tree[size + i] = i;
+            }
+            for (int node = size - 1; node > 0; node--) {
+                tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        List<ProductSuggestion> top(String prefix, int count) {
+            int from = lowerBound(prefix);
+            // Every string starting with the prefix sorts below prefix + U+FFFF
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            if (from >= to) {
+                return List.of();
+            }
+
+            // Pop the heaviest position of a range, then split the range around it
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    Comparator.comparingLong((int[] range) -> weights[range[2]])
+                            .thenComparingLong(range -> productIds[range[2]])
+                            .reversed());
+            ranges.add(new int[]{from, to, heaviestIn(from, to)});
+
+            List<ProductSuggestion> result = new ArrayList<>(count);
+            while (!ranges.isEmpty() && result.size() < count) {
+                int[] range = ranges.poll();
+                int best = range[2];
+                result.add(new ProductSuggestion(productIds[best], names[best]));
+
+                if (range[0] < best) {
+                    ranges.add(new int[]{range[0], best, heaviestIn(range[0], best)});
+                }
+                if (best + 1 < range[1]) {
+                    ranges.add(new int[]{best + 1, range[1], heaviestIn(best + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Position of the heaviest entry in [from, to)
+        private int heaviestIn(int from, int to) {
+            int best = from;
+            for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+                if ((left & 1) == 1) {
+                    best = heavier(best, tree[left++]);
+                }
+                if ((right & 1) == 1) {
+                    best = heavier(best, tree[--right]);
+                }
+            }
+            return best;
+        }
+
+        private int heavier(int a, int b) {
+            if (weights[a] != weights[b]) {
+                return weights[a] > weights[b] ? a : b;
+            }
+            return productIds[a] >= productIds[b] ? a : b;
+        }
+    }
+}
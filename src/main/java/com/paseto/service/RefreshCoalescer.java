@@ -0,0 +1,166 @@
+package com.paseto.service;
+
+import com.paseto.dto.AuthDataResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent refreshes of the same refresh token (keyed by {@code jti})
+ * into a single rotation, and remembers the rotated pair for a short grace window
+ * so client retries get the same result instead of tripping reuse detection.
+ */
+@Slf4j
+@Component
+public class RefreshCoalescer {
+
+    private static final int CLEANUP_THRESHOLD = 1024;
+
+    private final long gracePeriodNanos;
+    private final long waitTimeoutMillis;
+
+    private final Map<String, CompletableFuture<AuthDataResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RotatedPair> recentlyRotated = new ConcurrentHashMap<>();
+
+    private record RotatedPair(byte[] presentedToken, AuthDataResponse result, long expiresAtNanos) {}
+
+    public RefreshCoalescer(
+            @Value("${paseto.refresh-grace-period-seconds:10}") long gracePeriodSeconds,
+            @Value("${paseto.refresh-coalesce-timeout-ms:5000}") long waitTimeoutMillis) {
+        this.gracePeriodNanos = TimeUnit.SECONDS.toNanos(gracePeriodSeconds);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Runs {@code rotation} at most once for concurrent callers presenting the same token.
+     * Followers wait for the leader; callers arriving within the grace window after
+     * the leader committed get the cached pair.
+     */
+    public AuthDataResponse execute(String jti, String presentedToken, Supplier<AuthDataResponse> rotation) {
+        Optional<AuthDataResponse> recent = recentResult(jti, presentedToken);
+        if (recent.isPresent()) {
+            log.debug("Refresh token {} rotated within grace window, returning cached pair", jti);
+            return recent.get();
+        }
+
+        CompletableFuture<AuthDataResponse> own = new CompletableFuture<>();
+        CompletableFuture<AuthDataResponse> leader = inFlight.putIfAbsent(jti, own);
+        if (leader != null) {
+            log.debug("Refresh token {} already rotating, waiting for result", jti);
+            return await(leader);
+        }
+
+        // A leader may have published between the lookup above and winning the slot
+        recent = recentResult(jti, presentedToken);
+        if (recent.isPresent()) {
+            inFlight.remove(jti, own);
+            own.complete(recent.get());
+            return recent.get();
+        }
+
+        try {
+            AuthDataResponse result = rotation.get();
+            publishOnCompletion(jti, presentedToken, own, result);
+            return result;
+        } catch (RuntimeException e) {
+            inFlight.remove(jti, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the pair issued for this token if it was rotated within the grace window.
+     */
+    public Optional<AuthDataResponse> recentResult(String jti, String presentedToken) {
+        if (gracePeriodNanos <= 0) {
+            return Optional.empty();
+        }
+
+        RotatedPair pair = recentlyRotated.get(jti);
+        if (pair == null) {
+            return Optional.empty();
+        }
+
+        if (System.nanoTime() - pair.expiresAtNanos() > 0) {
+            recentlyRotated.remove(jti, pair);
+            return Optional.empty();
+        }
+
+        if (!MessageDigest.isEqual(pair.presentedToken(), presentedToken.getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(pair.result());
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    /**
+     * Completes the in-flight entry once the leader's transaction has finished,
+     * so followers never see tokens that could still be rolled back.
+     */
+    private void publishOnCompletion(String jti, String presentedToken,
+                                     CompletableFuture<AuthDataResponse> own, AuthDataResponse result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(jti, presentedToken, own, result);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publish(jti, presentedToken, own, result);
+                } else {
+                    inFlight.remove(jti, own);
+                    own.completeExceptionally(new IllegalArgumentException("Token refresh failed, please retry"));
+                }
+            }
+        });
+    }
+
+    private void publish(String jti, String presentedToken,
+                         CompletableFuture<AuthDataResponse> own, AuthDataResponse result) {
+        if (gracePeriodNanos > 0) {
+            if (recentlyRotated.size() >= CLEANUP_THRESHOLD) {
+                long now = System.nanoTime();
+                recentlyRotated.values().removeIf(pair -> now - pair.expiresAtNanos() > 0);
+            }
+            recentlyRotated.put(jti, new RotatedPair(
+                    presentedToken.getBytes(StandardCharsets.UTF_8), result, System.nanoTime() + gracePeriodNanos));
+        }
+
+        inFlight.remove(jti, own);
+        own.complete(result);
+    }
+
+    private AuthDataResponse await(CompletableFuture<AuthDataResponse> leader) {
+        try {
+            return leader.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Token refresh failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalArgumentException("Token refresh already in progress, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for token refresh", e);
+        }
+    }
+}
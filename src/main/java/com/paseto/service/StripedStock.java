@@ -0,0 +1,75 @@
+package com.paseto.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock units held in memory, spread over stripes so concurrent takers mostly
+ * compare-and-swap different cache lines instead of queueing on one counter.
+ * A take is served from a single stripe; {@link #consolidate()} gathers
+ * scattered units when no stripe has enough on its own.
+ */
+final class StripedStock {
+
+    // Slots 8 longs (64 bytes) apart, so each stripe sits on its own cache line
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedStock(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripes must be at least 1");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+    }
+
+    /**
+     * Takes {@code quantity} units if one stripe holds them, starting from the
+     * calling thread's own stripe.
+     */
+    boolean tryTake(int quantity) {
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((home + i) % stripes) * PAD;
+            long units = cells.get(cell);
+            while (units >= quantity) {
+                long witness = cells.compareAndExchange(cell, units, units - quantity);
+                if (witness == units) {
+                    return true;
+                }
+                units = witness;
+            }
+        }
+        return false;
+    }
+
+    void add(long units) {
+        cells.getAndAdd(home() * PAD, units);
+    }
+
+    /**
+     * Removes and returns every unit held.
+     */
+    long drain() {
+        long units = 0;
+        for (int i = 0; i < stripes; i++) {
+            units += cells.getAndSet(i * PAD, 0);
+        }
+        return units;
+    }
+
+    /**
+     * Moves every unit onto the calling thread's stripe.
+     */
+    void consolidate() {
+        long units = drain();
+        if (units > 0) {
+            add(units);
+        }
+    }
+
+    private int home() {
+        return (int) Math.floorMod(Thread.currentThread().threadId(), (long) stripes);
+    }
+}
@@ -0,0 +1,134 @@
+package com.paseto.service;
+
+import com.paseto.config.DatabasePlatform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns User-Agent strings into the {@code user_agents} table so session rows
+ * only carry a small integer id. Known values are cached in memory; unknown
+ * values are inserted lazily in the caller's transaction.
+ */
+@Slf4j
+@Service
+public class UserAgentDictionary {
+
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final int maxCachedEntries;
+
+    private final Map<String, Integer> idsByUserAgent = new ConcurrentHashMap<>();
+
+    public UserAgentDictionary(
+            JdbcTemplate jdbcTemplate,
+            DatabasePlatform databasePlatform,
+            @Value("${paseto.user-agent-cache-size:10000}") int maxCachedEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.maxCachedEntries = maxCachedEntries;
+    }
+
+    /**
+     * Returns the dictionary id of a User-Agent, inserting it if it is new.
+     */
+    public Integer resolveId(String userAgent) {
+        if (userAgent == null || userAgent.isEmpty()) {
+            return null;
+        }
+
+        String value = userAgent.length() > MAX_USER_AGENT_LENGTH
+                ? userAgent.substring(0, MAX_USER_AGENT_LENGTH)
+                : userAgent;
+
+        Integer cached = idsByUserAgent.get(value);
+        if (cached != null) {
+            return cached;
+        }
+
+        Integer existing = findId(value);
+        if (existing != null) {
+            remember(value, existing);
+            return existing;
+        }
+
+        Integer inserted = insert(value);
+        rememberAfterCommit(value, inserted);
+        return inserted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            jdbcTemplate.query("SELECT id, user_agent FROM user_agents ORDER BY id LIMIT " + maxCachedEntries,
+                    rs -> {
+                        remember(rs.getString("user_agent"), rs.getInt("id"));
+                    });
+            log.info("Loaded {} user agents into dictionary cache", idsByUserAgent.size());
+        } catch (Exception e) {
+            log.warn("Failed to warm up user agent dictionary: {}", e.getMessage());
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private Integer findId(String value) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM user_agents WHERE user_agent = ?", Integer.class, value);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private Integer insert(String value) {
+        if (databasePlatform.isPostgreSql()) {
+            // Concurrent inserts of the same value wait on the unique index instead of failing
+            List<Integer> ids = jdbcTemplate.queryForList(
+                    "INSERT INTO user_agents (user_agent) VALUES (?) ON CONFLICT (user_agent) DO NOTHING RETURNING id",
+                    Integer.class, value);
+            return ids.isEmpty() ? findId(value) : ids.get(0);
+        }
+
+        try {
+            jdbcTemplate.update("INSERT INTO user_agents (user_agent) VALUES (?)", value);
+        } catch (DuplicateKeyException e) {
+            log.debug("User agent inserted concurrently, reading existing id");
+        }
+        return findId(value);
+    }
+
+    /**
+     * Caches only once the inserting transaction has committed, so a rollback
+     * never leaves an id in the cache that does not exist in the table.
+     */
+    private void rememberAfterCommit(String value, Integer id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(value, id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(value, id);
+            }
+        });
+    }
+
+    private void remember(String value, Integer id) {
+        if (id == null || idsByUserAgent.size() >= maxCachedEntries) {
+            return;
+        }
+        idsByUserAgent.put(value, id);
+    }
+}
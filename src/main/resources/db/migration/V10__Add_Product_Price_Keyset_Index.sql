@@ -0,0 +1,14 @@
+-- =====================================================
+-- PASETO API - Price-ordered product queries
+-- Version: V10__Add_Product_Price_Keyset_Index
+-- Description: Support keyset pagination over (price, id) for /api/products/query
+-- =====================================================
+
+-- Price range filters and price sorts with the id tie-breaker are one range scan,
+-- in either direction.
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products(price, id);
+
+-- Price alone; superseded by idx_products_price_id
+DROP INDEX IF EXISTS idx_products_price;
+
+COMMENT ON INDEX idx_products_price_id IS 'Product price range filters and price-sorted keyset pagination by (price, id)';
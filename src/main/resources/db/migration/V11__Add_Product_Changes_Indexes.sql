@@ -0,0 +1,13 @@
+-- =====================================================
+-- PASETO API - Product delta sync
+-- Version: V11__Add_Product_Changes_Indexes
+-- Description: Support /api/products/changes over (updated_at, id) and tombstones
+-- =====================================================
+
+-- Products written since a watermark, oldest first, as one range scan
+CREATE INDEX IF NOT EXISTS idx_products_updated_id ON products(updated_at, id);
+
+-- Deletes since a watermark; the table is created from the ProductTombstone entity
+CREATE INDEX IF NOT EXISTS idx_product_tombstones_deleted ON product_tombstones(deleted_at, product_id);
+
+COMMENT ON INDEX idx_products_updated_id IS 'Delta sync: products created or updated after a watermark';
@@ -0,0 +1,19 @@
+-- =====================================================
+-- PASETO API - Device session reuse
+-- Version: V12__Add_Device_Session_Indexes
+-- Description: Conflict target of the device session upsert and replay lookup of rotated tokens
+-- =====================================================
+
+-- ON CONFLICT (device_fingerprint) needs a unique index; do not rely on ddl-auto to create it.
+-- Several NULL fingerprints (sessions without device reuse) are still allowed.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_tokens_device_fingerprint ON refresh_tokens(device_fingerprint);
+
+-- Token ID a device session held before its last in-place rotation
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS previous_token_id VARCHAR(255);
+
+-- Replayed refresh tokens are looked up by their old token ID
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_previous_token_id
+    ON refresh_tokens(previous_token_id)
+    WHERE previous_token_id IS NOT NULL;
+
+COMMENT ON INDEX idx_refresh_tokens_device_fingerprint IS 'ON CONFLICT target for reusing one session per user and device';
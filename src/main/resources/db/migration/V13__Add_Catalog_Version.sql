@@ -0,0 +1,13 @@
+-- =====================================================
+-- PASETO API - Catalog version counter
+-- Version: V13__Add_Catalog_Version
+-- Description: One-row counter every product write increments in its transaction; the list ETag
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM catalog_version WHERE id = 1);
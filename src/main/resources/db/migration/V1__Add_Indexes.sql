@@ -36,28 +36,19 @@ CREATE INDEX IF NOT EXISTS idx_refresh_tokens_active ON refresh_tokens(revoked,
 -- Index for cleanup expired tokens
 CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
 
--- Index for device tracking
-CREATE INDEX IF NOT EXISTS idx_refresh_tokens_device_ip ON refresh_tokens(device_info, ip_address);
+-- Index for device tracking (User-Agent dictionary id + IP)
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_device_ip ON refresh_tokens(user_agent_id, ip_address);
 
 -- =====================================================
 -- PRODUCTS TABLE INDEXES
 -- =====================================================
 
--- Index for product name search (search by name)
-CREATE INDEX IF NOT EXISTS idx_products_name ON products USING gin(to_tsvector('english', name));
-
 -- Index for active products
 CREATE INDEX IF NOT EXISTS idx_products_active ON products(active);
 
--- Index for SKU lookup
-CREATE INDEX IF NOT EXISTS idx_products_sku ON products(sku);
-
 -- Composite index for active products with created_at (listing)
 CREATE INDEX IF NOT EXISTS idx_products_active_created ON products(active, created_at DESC);
 
--- Index for price range queries
-CREATE INDEX IF NOT EXISTS idx_products_price ON products(price);
-
 -- Index for stock queries
 CREATE INDEX IF NOT EXISTS idx_products_stock ON products(stock);
 
@@ -93,6 +84,5 @@ ANALYZE banners;
 
 COMMENT ON INDEX idx_users_username IS 'Index for fast username lookup during login';
 COMMENT ON INDEX idx_refresh_tokens_active IS 'Composite index for active token validation';
-COMMENT ON INDEX idx_products_name IS 'Full-text search index for product names';
 COMMENT ON INDEX idx_products_active_created IS 'Index for active products listing ordered by creation date';
 COMMENT ON INDEX idx_banners_active_order IS 'Index for active banners ordered by display priority';
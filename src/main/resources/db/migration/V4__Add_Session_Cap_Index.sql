@@ -0,0 +1,12 @@
+-- =====================================================
+-- PASETO API - Per-user session cap
+-- Version: V4__Add_Session_Cap_Index
+-- Description: Support revoking the oldest active sessions of a user
+-- =====================================================
+
+-- Partial index over active sessions, ordered newest first (session cap eviction)
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_active_issued
+    ON refresh_tokens(user_id, issued_at DESC, id DESC)
+    WHERE revoked = false;
+
+COMMENT ON INDEX idx_refresh_tokens_user_active_issued IS 'Active sessions per user, newest first, for session cap eviction';
@@ -0,0 +1,30 @@
+-- =====================================================
+-- PASETO API - User-Agent dictionary
+-- Version: V5__Intern_User_Agents
+-- Description: Move raw User-Agent strings from refresh_tokens into user_agents
+-- =====================================================
+
+-- Backfill the dictionary from the legacy device_info column, then drop it
+-- (dropping the column also drops the old idx_refresh_tokens_device_ip)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'refresh_tokens' AND column_name = 'device_info') THEN
+
+        INSERT INTO user_agents (user_agent)
+        SELECT DISTINCT left(device_info, 255) FROM refresh_tokens
+        WHERE device_info IS NOT NULL AND device_info <> ''
+        ON CONFLICT (user_agent) DO NOTHING;
+
+        UPDATE refresh_tokens r SET user_agent_id = ua.id
+        FROM user_agents ua
+        WHERE r.user_agent_id IS NULL AND left(r.device_info, 255) = ua.user_agent;
+
+        ALTER TABLE refresh_tokens DROP COLUMN device_info;
+    END IF;
+END $$;
+
+-- Index for device tracking (User-Agent dictionary id + IP)
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_device_ip ON refresh_tokens(user_agent_id, ip_address);
+
+COMMENT ON TABLE user_agents IS 'Dictionary of distinct User-Agent strings referenced by refresh_tokens.user_agent_id';
@@ -0,0 +1,17 @@
+-- =====================================================
+-- PASETO API - Product keyset pagination
+-- Version: V6__Add_Product_Keyset_Index
+-- Description: Support cursor pagination over (created_at, id)
+-- =====================================================
+
+-- Matches ORDER BY created_at DESC, id DESC so every page is one index range scan.
+-- The INCLUDE columns are the summary projection, so summary pages are index-only
+-- scans; description stays out to keep the index small.
+CREATE INDEX IF NOT EXISTS idx_products_created_id_summary
+    ON products(created_at DESC, id DESC)
+    INCLUDE (name, price, stock, image_url, sku, active, updated_at);
+
+-- Same key without the payload; superseded by idx_products_created_id_summary
+DROP INDEX IF EXISTS idx_products_created_id;
+
+COMMENT ON INDEX idx_products_created_id_summary IS 'Product listing newest first, keyset pagination by (created_at, id), covers the summary projection';
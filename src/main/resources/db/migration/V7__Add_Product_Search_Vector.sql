@@ -0,0 +1,19 @@
+-- =====================================================
+-- PASETO API - Product full-text search
+-- Version: V7__Add_Product_Search_Vector
+-- Description: Stored tsvector over name and description with a GIN index
+-- =====================================================
+
+-- Name matches rank above description matches
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING gin(search_vector);
+
+-- Superseded by idx_products_search_vector; no query used the name-only expression
+DROP INDEX IF EXISTS idx_products_name;
+
+COMMENT ON INDEX idx_products_search_vector IS 'Full-text search index for product name and description';
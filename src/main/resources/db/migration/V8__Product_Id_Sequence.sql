@@ -0,0 +1,21 @@
+-- =====================================================
+-- PASETO API - Product id sequence
+-- Version: V8__Product_Id_Sequence
+-- Description: Pooled products_id_seq so Hibernate can batch product inserts
+-- =====================================================
+
+-- Hibernate reserves 50 ids per nextval (allocationSize = 50). Tables created while
+-- products used IDENTITY keep their identity column and just get the new increment;
+-- tables created since have a plain column, which gets the sequence as its default
+-- so the seed script and other plain INSERTs keep working.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'products' AND column_name = 'id' AND is_identity = 'YES') THEN
+        ALTER TABLE products ALTER COLUMN id SET INCREMENT BY 50;
+    ELSE
+        CREATE SEQUENCE IF NOT EXISTS products_id_seq START WITH 1 INCREMENT BY 50;
+        ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+        ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_id_seq');
+    END IF;
+END $$;
@@ -0,0 +1,14 @@
+-- =====================================================
+-- PASETO API - Unique product SKU
+-- Version: V9__Add_Product_Sku_Unique
+-- Description: Unique SKU index, the conflict target of the CSV import upsert
+-- =====================================================
+
+-- Several NULL SKUs are still allowed. Fails (and is logged) if the table already
+-- holds duplicate SKUs; the import reports an error until they are cleaned up.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_products_sku_unique ON products(sku);
+
+-- Superseded by idx_products_sku_unique
+DROP INDEX IF EXISTS idx_products_sku;
+
+COMMENT ON INDEX idx_products_sku_unique IS 'SKU lookup and ON CONFLICT (sku) target for the CSV import';
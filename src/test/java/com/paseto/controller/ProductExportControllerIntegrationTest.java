@@ -0,0 +1,109 @@
+package com.paseto.controller;
+
+import com.paseto.entity.Product;
+import com.paseto.repository.ProductRepository;
+import com.paseto.service.PasetoV4Service;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Goes through the security filter chain, so the async dispatch that writes the
+ * streamed body is checked the way it is in the server. Not transactional: the
+ * body is written on another thread and has to see committed rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Product Export Endpoint Integration Tests")
+class ProductExportControllerIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private PasetoV4Service pasetoV4Service;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(springSecurityFilterChain)
+                .build();
+
+        productRepository.deleteAll();
+        for (int i = 1; i <= 2; i++) {
+            Product product = new Product();
+            product.setName("Streamed Product " + i);
+            product.setPrice(new BigDecimal("5.00"));
+            product.setStock(i);
+            product.setSku("STR-00" + i);
+            product.setActive(true);
+            productRepository.save(product);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should stream the export to an authenticated caller")
+    void shouldStreamExport() throws Exception {
+        // Given
+        String accessToken = pasetoV4Service.generateAccessToken(1L, "exporter");
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/products/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn();
+
+        // Then
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"sku\":\"STR-001\""));
+    }
+
+    @Test
+    @DisplayName("Should reject an export request without a token")
+    void shouldRejectExportWithoutToken() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/products/export"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -10,7 +10,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +40,12 @@ class AuthServiceIntegrationTest {
     @Autowired
     private PasetoV4Service pasetoV4Service;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${paseto.max-sessions-per-user}")
+    private int maxSessionsPerUser;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     private User testUser;
@@ -222,6 +230,51 @@ class AuthServiceIntegrationTest {
             List<RefreshToken> tokens = refreshTokenRepository.findByUserIdAndRevokedFalse(testUser.getId());
             assertEquals(2, tokens.size());
         }
+
+        @Test
+        @DisplayName("Should store User-Agent as dictionary id")
+        void shouldStoreUserAgentAsDictionaryId() {
+            // Given
+            LoginRequest request = new LoginRequest();
+            request.setUsername("testuser");
+            request.setPassword("password123");
+
+            // When - Login twice from the same browser
+            authService.login(request, "Mozilla/5.0 (X11; Linux x86_64)", "192.168.1.1");
+            authService.login(request, "Mozilla/5.0 (X11; Linux x86_64)", "192.168.1.2");
+
+            // Then
+            List<RefreshToken> tokens = refreshTokenRepository.findByUserIdAndRevokedFalse(testUser.getId());
+            assertEquals(2, tokens.size());
+            assertNotNull(tokens.get(0).getUserAgentId());
+            assertEquals(tokens.get(0).getUserAgentId(), tokens.get(1).getUserAgentId());
+            assertEquals("Mozilla/5.0 (X11; Linux x86_64)",
+                    jdbcTemplate.queryForObject("SELECT user_agent FROM user_agents WHERE id = ?",
+                            String.class, tokens.get(0).getUserAgentId()));
+        }
+
+        @Test
+        @DisplayName("Should revoke oldest sessions beyond per-user cap")
+        void shouldRevokeOldestSessionsBeyondCap() {
+            // Given
+            LoginRequest request = new LoginRequest();
+            request.setUsername("testuser");
+            request.setPassword("password123");
+
+            // When - Login more times than the cap allows
+            String latestRefreshToken = null;
+            for (int i = 0; i < maxSessionsPerUser + 2; i++) {
+                latestRefreshToken = authService.login(request, "Device " + i, "192.168.1." + i)
+                        .getData().getRefreshToken();
+            }
+
+            // Then
+            List<RefreshToken> tokens = refreshTokenRepository.findByUserIdAndRevokedFalse(testUser.getId());
+            assertEquals(maxSessionsPerUser, tokens.size());
+
+            String latestTokenId = pasetoV4Service.validateRefreshToken(latestRefreshToken).jti();
+            assertTrue(tokens.stream().anyMatch(token -> token.getTokenId().equals(latestTokenId)));
+        }
     }
 
     @Nested
@@ -474,7 +527,6 @@ class AuthServiceIntegrationTest {
             expiredToken.setToken("expired-token");
             expiredToken.setIssuedAt(LocalDateTime.now().minusDays(10));
             expiredToken.setExpiresAt(LocalDateTime.now().minusDays(3));
-            expiredToken.setDeviceInfo("Test Device");
             expiredToken.setIpAddress("127.0.0.1");
             refreshTokenRepository.save(expiredToken);
 
@@ -1,5 +1,6 @@
 package com.paseto.service;
 
+import com.paseto.config.DatabasePlatform;
 import com.paseto.dto.*;
 import com.paseto.entity.RefreshToken;
 import com.paseto.entity.User;
@@ -12,8 +13,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,7 +24,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +45,15 @@ class AuthServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private UserAgentDictionary userAgentDictionary;
+
+    @Spy
+    private RefreshCoalescer refreshCoalescer = new RefreshCoalescer(10, 5000);
+
     @InjectMocks
     private AuthService authService;
 
@@ -159,6 +173,142 @@ class AuthServiceTest {
             verify(passwordEncoder).matches("wrongPassword", testUser.getPassword());
             verify(pasetoV4Service, never()).generateAccessToken(any(), anyString());
         }
+
+        @Test
+        @DisplayName("Should enforce session cap on login")
+        void shouldEnforceSessionCapOnLogin() {
+            // Given
+            ReflectionTestUtils.setField(authService, "maxSessionsPerUser", 3);
+
+            LoginRequest request = new LoginRequest();
+            request.setUsername("testuser");
+            request.setPassword("rawPassword");
+
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+            when(passwordEncoder.matches("rawPassword", testUser.getPassword())).thenReturn(true);
+            when(pasetoV4Service.generateAccessToken(1L, "testuser")).thenReturn(testAccessToken);
+            when(pasetoV4Service.generateTokenId()).thenReturn(testTokenId);
+            when(pasetoV4Service.generateRefreshToken(1L, "testuser", testTokenId)).thenReturn(testRefreshTokenString);
+            when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(testRefreshToken);
+            when(refreshTokenRepository.revokeOldestActiveSessions(eq(1L), eq(3), any(LocalDateTime.class))).thenReturn(1);
+
+            // When
+            ApiResponse<AuthDataResponse> response = authService.login(request, testDevice, testIp);
+
+            // Then
+            assertEquals("success", response.getStatus());
+            verify(userRepository).lockById(1L);
+            verify(refreshTokenRepository).revokeOldestActiveSessions(eq(1L), eq(3), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should reuse existing session row for same device fingerprint")
+        void shouldReuseSessionForSameDevice() {
+            // Given
+            ReflectionTestUtils.setField(authService, "sessionReusePerDevice", true);
+
+            LoginRequest request = new LoginRequest();
+            request.setUsername("testuser");
+            request.setPassword("rawPassword");
+
+            testRefreshToken.setDeviceFingerprint("existing-fingerprint");
+            testRefreshToken.revoke();
+
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+            when(passwordEncoder.matches("rawPassword", testUser.getPassword())).thenReturn(true);
+            when(pasetoV4Service.generateAccessToken(1L, "testuser")).thenReturn(testAccessToken);
+            when(pasetoV4Service.generateTokenId()).thenReturn("rotated-token-id");
+            when(pasetoV4Service.generateRefreshToken(1L, "testuser", "rotated-token-id")).thenReturn(testRefreshTokenString);
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(refreshTokenRepository.findByDeviceFingerprint(anyString())).thenReturn(Optional.of(testRefreshToken));
+            when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            authService.login(request, testDevice, testIp);
+
+            // Then - the same row is rotated and re-activated instead of inserting a new one
+            verify(refreshTokenRepository).save(testRefreshToken);
+            assertEquals("rotated-token-id", testRefreshToken.getTokenId());
+            assertFalse(testRefreshToken.isRevoked());
+            assertNull(testRefreshToken.getRevokedAt());
+            assertEquals(64, testRefreshToken.getDeviceFingerprint().length());
+        }
+
+        @Test
+        @DisplayName("Should detect replay of the token a device login replaced")
+        void shouldDetectReplayOfTokenReplacedByLogin() {
+            // Given - the device logs in again while its old refresh token is still valid
+            ReflectionTestUtils.setField(authService, "sessionReusePerDevice", true);
+
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setUsername("testuser");
+            loginRequest.setPassword("rawPassword");
+
+            testRefreshToken.setDeviceFingerprint("existing-fingerprint");
+
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+            when(passwordEncoder.matches("rawPassword", testUser.getPassword())).thenReturn(true);
+            when(pasetoV4Service.generateAccessToken(1L, "testuser")).thenReturn(testAccessToken);
+            when(pasetoV4Service.generateTokenId()).thenReturn("rotated-token-id");
+            when(pasetoV4Service.generateRefreshToken(1L, "testuser", "rotated-token-id")).thenReturn("v4.public.rotated-refresh-token");
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(refreshTokenRepository.findByDeviceFingerprint(anyString())).thenReturn(Optional.of(testRefreshToken));
+            when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            authService.login(loginRequest, testDevice, testIp);
+            assertEquals(testTokenId, testRefreshToken.getPreviousTokenId());
+
+            RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+            refreshRequest.setRefreshToken(testRefreshTokenString);
+
+            PasetoV4Service.TokenClaims claims = new PasetoV4Service.TokenClaims(
+                    "paseto-api", "1", "paseto-api-refresh",
+                    System.currentTimeMillis() / 1000 + 86400,
+                    System.currentTimeMillis() / 1000,
+                    System.currentTimeMillis() / 1000,
+                    testTokenId, "testuser", "refresh"
+            );
+
+            when(pasetoV4Service.validateRefreshToken(testRefreshTokenString)).thenReturn(claims);
+            when(refreshTokenRepository.findByTokenId(testTokenId)).thenReturn(Optional.empty());
+            when(refreshTokenRepository.findByPreviousTokenId(testTokenId)).thenReturn(Optional.of(testRefreshToken));
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(refreshTokenRepository.findByUserIdAndRevokedFalse(1L)).thenReturn(List.of(testRefreshToken));
+            when(refreshTokenRepository.saveAll(anyList())).thenReturn(List.of(testRefreshToken));
+
+            // When - the token from before the login is replayed
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> authService.refreshToken(refreshRequest)
+            );
+
+            // Then
+            assertEquals("Token reuse detected. All tokens have been revoked.", exception.getMessage());
+            assertTrue(testRefreshToken.isRevoked());
+        }
+
+        @Test
+        @DisplayName("Should propagate token generation failure and not store a session")
+        void shouldPropagateTokenGenerationFailure() {
+            // Given
+            LoginRequest request = new LoginRequest();
+            request.setUsername("testuser");
+            request.setPassword("rawPassword");
+
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+            when(passwordEncoder.matches("rawPassword", testUser.getPassword())).thenReturn(true);
+            when(pasetoV4Service.generateAccessToken(1L, "testuser"))
+                    .thenThrow(new IllegalStateException("Failed to generate access token"));
+
+            // When & Then
+            IllegalStateException exception = assertThrows(
+                    IllegalStateException.class,
+                    () -> authService.login(request, testDevice, testIp)
+            );
+
+            assertEquals("Failed to generate access token", exception.getMessage());
+            verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        }
     }
 
     // ==================== REGISTER TESTS ====================
@@ -377,6 +527,40 @@ class AuthServiceTest {
             verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
         }
 
+        @Test
+        @DisplayName("Should return same pair when token is refreshed again within grace window")
+        void shouldReturnCachedPairWithinGraceWindow() {
+            // Given
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken(testRefreshTokenString);
+
+            PasetoV4Service.TokenClaims claims = new PasetoV4Service.TokenClaims(
+                    "paseto-api", "1", "paseto-api-refresh",
+                    System.currentTimeMillis() / 1000 + 86400,
+                    System.currentTimeMillis() / 1000,
+                    System.currentTimeMillis() / 1000,
+                    testTokenId, "testuser", "refresh"
+            );
+
+            when(pasetoV4Service.validateRefreshToken(testRefreshTokenString)).thenReturn(claims);
+            when(refreshTokenRepository.findByTokenId(testTokenId)).thenReturn(Optional.of(testRefreshToken));
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(pasetoV4Service.generateAccessToken(1L, "testuser")).thenReturn("v4.local.new-access-token");
+            when(pasetoV4Service.generateTokenId()).thenReturn("new-token-id");
+            when(pasetoV4Service.generateRefreshToken(1L, "testuser", "new-token-id")).thenReturn("v4.public.new-refresh-token");
+            when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When - client retries with the token it already rotated
+            ApiResponse<AuthDataResponse> first = authService.refreshToken(request);
+            ApiResponse<AuthDataResponse> retry = authService.refreshToken(request);
+
+            // Then - no reuse detection, rotation ran once
+            assertEquals(first.getData().getRefreshToken(), retry.getData().getRefreshToken());
+            assertEquals(first.getData().getAccessToken(), retry.getData().getAccessToken());
+            verify(refreshTokenRepository, times(1)).findByTokenId(testTokenId);
+            verify(refreshTokenRepository, never()).findByUserIdAndRevokedFalse(anyLong());
+        }
+
         @Test
         @DisplayName("Should throw exception when refresh token not found in database")
         void shouldThrowExceptionWhenRefreshTokenNotFound() {
@@ -467,6 +651,82 @@ class AuthServiceTest {
             verify(refreshTokenRepository).findByUserIdAndRevokedFalse(1L);
             verify(refreshTokenRepository).saveAll(anyList());
         }
+
+        @Test
+        @DisplayName("Should keep the previous token ID when a device session rotates in place")
+        void shouldKeepPreviousTokenIdOnDeviceRotation() {
+            // Given
+            ReflectionTestUtils.setField(authService, "sessionReusePerDevice", true);
+            testRefreshToken.setDeviceFingerprint("existing-fingerprint");
+
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken(testRefreshTokenString);
+
+            PasetoV4Service.TokenClaims claims = new PasetoV4Service.TokenClaims(
+                    "paseto-api", "1", "paseto-api-refresh",
+                    System.currentTimeMillis() / 1000 + 86400,
+                    System.currentTimeMillis() / 1000,
+                    System.currentTimeMillis() / 1000,
+                    testTokenId, "testuser", "refresh"
+            );
+
+            when(pasetoV4Service.validateRefreshToken(testRefreshTokenString)).thenReturn(claims);
+            when(refreshTokenRepository.findByTokenId(testTokenId)).thenReturn(Optional.of(testRefreshToken));
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(pasetoV4Service.generateAccessToken(1L, "testuser")).thenReturn("v4.local.new-access-token");
+            when(pasetoV4Service.generateTokenId()).thenReturn("new-token-id");
+            when(pasetoV4Service.generateRefreshToken(1L, "testuser", "new-token-id")).thenReturn("v4.public.new-refresh-token");
+            when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            authService.refreshToken(request);
+
+            // Then - same row, new token, old token ID kept
+            assertFalse(testRefreshToken.isRevoked());
+            assertEquals("new-token-id", testRefreshToken.getTokenId());
+            assertEquals(testTokenId, testRefreshToken.getPreviousTokenId());
+            assertEquals("v4.public.new-refresh-token", testRefreshToken.getToken());
+            verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+        }
+
+        @Test
+        @DisplayName("Should revoke all tokens when a token rotated in place is replayed")
+        void shouldDetectReplayOfDeviceSessionToken() {
+            // Given - the device session was already rotated away from the replayed token
+            ReflectionTestUtils.setField(authService, "sessionReusePerDevice", true);
+            testRefreshToken.setDeviceFingerprint("existing-fingerprint");
+            testRefreshToken.setTokenId("rotated-token-id");
+            testRefreshToken.setToken("v4.public.rotated-refresh-token");
+            testRefreshToken.setPreviousTokenId(testTokenId);
+
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken(testRefreshTokenString);
+
+            PasetoV4Service.TokenClaims claims = new PasetoV4Service.TokenClaims(
+                    "paseto-api", "1", "paseto-api-refresh",
+                    System.currentTimeMillis() / 1000 + 86400,
+                    System.currentTimeMillis() / 1000,
+                    System.currentTimeMillis() / 1000,
+                    testTokenId, "testuser", "refresh"
+            );
+
+            when(pasetoV4Service.validateRefreshToken(testRefreshTokenString)).thenReturn(claims);
+            when(refreshTokenRepository.findByTokenId(testTokenId)).thenReturn(Optional.empty());
+            when(refreshTokenRepository.findByPreviousTokenId(testTokenId)).thenReturn(Optional.of(testRefreshToken));
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(refreshTokenRepository.findByUserIdAndRevokedFalse(1L)).thenReturn(List.of(testRefreshToken));
+            when(refreshTokenRepository.saveAll(anyList())).thenReturn(List.of(testRefreshToken));
+
+            // When & Then
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> authService.refreshToken(request)
+            );
+
+            assertEquals("Token reuse detected. All tokens have been revoked.", exception.getMessage());
+            assertTrue(testRefreshToken.isRevoked());
+            verify(refreshTokenRepository).saveAll(anyList());
+        }
     }
 
     // ==================== LOGOUT TESTS ====================
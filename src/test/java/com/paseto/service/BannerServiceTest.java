@@ -1,8 +1,11 @@
 package com.paseto.service;
 
+import com.paseto.config.DatabasePlatform;
 import com.paseto.dto.BannerRequest;
 import com.paseto.dto.BannerResponse;
 import com.paseto.entity.Banner;
+import com.paseto.event.BannerChangedEvent;
+import com.paseto.exception.PreconditionFailedException;
 import com.paseto.repository.BannerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,14 +15,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +37,12 @@ class BannerServiceTest {
     @Mock
     private BannerRepository bannerRepository;
 
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BannerService bannerService;
 
@@ -93,8 +107,8 @@ class BannerServiceTest {
         @DisplayName("Should return all banners ordered by display order")
         void shouldReturnAllBannersOrdered() {
             // Given - Return banners in wrong order
-            List<Banner> banners = Arrays.asList(testBanner1, testBanner2, testBanner3);
-            when(bannerRepository.findAllByOrderByDisplayOrderAsc()).thenReturn(banners);
+            List<BannerResponse> banners = responses(testBanner1, testBanner2, testBanner3);
+            when(bannerRepository.findAllResponses()).thenReturn(banners);
 
             // When
             List<BannerResponse> result = bannerService.findAll();
@@ -106,14 +120,14 @@ class BannerServiceTest {
             assertEquals("Winter Sale", result.get(1).getTitle());
             assertEquals("Inactive Banner", result.get(2).getTitle());
 
-            verify(bannerRepository).findAllByOrderByDisplayOrderAsc();
+            verify(bannerRepository).findAllResponses();
         }
 
         @Test
         @DisplayName("Should return empty list when no banners exist")
         void shouldReturnEmptyList() {
             // Given
-            when(bannerRepository.findAllByOrderByDisplayOrderAsc()).thenReturn(List.of());
+            when(bannerRepository.findAllResponses()).thenReturn(List.of());
 
             // When
             List<BannerResponse> result = bannerService.findAll();
@@ -122,7 +136,7 @@ class BannerServiceTest {
             assertNotNull(result);
             assertTrue(result.isEmpty());
 
-            verify(bannerRepository).findAllByOrderByDisplayOrderAsc();
+            verify(bannerRepository).findAllResponses();
         }
     }
 
@@ -136,8 +150,8 @@ class BannerServiceTest {
         @DisplayName("Should return only active banners ordered by display order")
         void shouldReturnActiveBannersOnly() {
             // Given
-            List<Banner> activeBanners = Arrays.asList(testBanner2, testBanner1);
-            when(bannerRepository.findByActiveOrderByDisplayOrderAsc(true)).thenReturn(activeBanners);
+            List<BannerResponse> activeBanners = responses(testBanner2, testBanner1);
+            when(bannerRepository.findResponsesByActive(true)).thenReturn(activeBanners);
 
             // When
             List<BannerResponse> result = bannerService.findActive();
@@ -150,14 +164,14 @@ class BannerServiceTest {
             assertEquals("Winter Sale", result.get(0).getTitle());
             assertEquals("Summer Sale", result.get(1).getTitle());
 
-            verify(bannerRepository).findByActiveOrderByDisplayOrderAsc(true);
+            verify(bannerRepository).findResponsesByActive(true);
         }
 
         @Test
         @DisplayName("Should return empty list when no active banners exist")
         void shouldReturnEmptyListWhenNoActiveBanners() {
             // Given
-            when(bannerRepository.findByActiveOrderByDisplayOrderAsc(true)).thenReturn(List.of());
+            when(bannerRepository.findResponsesByActive(true)).thenReturn(List.of());
 
             // When
             List<BannerResponse> result = bannerService.findActive();
@@ -166,15 +180,15 @@ class BannerServiceTest {
             assertNotNull(result);
             assertTrue(result.isEmpty());
 
-            verify(bannerRepository).findByActiveOrderByDisplayOrderAsc(true);
+            verify(bannerRepository).findResponsesByActive(true);
         }
 
         @Test
         @DisplayName("Should exclude inactive banners")
         void shouldExcludeInactiveBanners() {
             // Given - Only return active banners
-            List<Banner> activeBanners = Arrays.asList(testBanner1);
-            when(bannerRepository.findByActiveOrderByDisplayOrderAsc(true)).thenReturn(activeBanners);
+            List<BannerResponse> activeBanners = responses(testBanner1);
+            when(bannerRepository.findResponsesByActive(true)).thenReturn(activeBanners);
 
             // When
             List<BannerResponse> result = bannerService.findActive();
@@ -190,6 +204,41 @@ class BannerServiceTest {
         }
     }
 
+    // ==================== FIELDS TESTS ====================
+
+    @Nested
+    @DisplayName("Sparse Fields Tests")
+    class FieldsTests {
+
+        @Test
+        @DisplayName("Should read only the requested fields, in the order given")
+        void shouldReadRequestedFields() {
+            // Given
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("title", "Summer Sale");
+            row.put("id", 1L);
+            when(bannerRepository.findFields(eq(true), any())).thenReturn(List.of(row));
+
+            // When
+            List<Map<String, Object>> result = bannerService.findActiveFields(" title, id,title ");
+
+            // Then
+            assertEquals(List.of(row), result);
+            verify(bannerRepository).findFields(eq(true), argThat(fields -> List.copyOf(fields).equals(List.of("title", "id"))));
+        }
+
+        @Test
+        @DisplayName("Should reject unknown or missing fields without a query")
+        void shouldRejectUnknownFields() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> bannerService.findAllFields("id,password"));
+            assertEquals("Unknown field: password", exception.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> bannerService.findAllFields(" , "));
+            verifyNoInteractions(bannerRepository);
+        }
+    }
+
     // ==================== FIND BY ID TESTS ====================
 
     @Nested
@@ -201,7 +250,7 @@ class BannerServiceTest {
         void shouldFindBannerById() {
             // Given
             Long bannerId = 1L;
-            when(bannerRepository.findById(bannerId)).thenReturn(Optional.of(testBanner1));
+            when(bannerRepository.findResponseById(bannerId)).thenReturn(Optional.of(BannerResponse.fromEntity(testBanner1)));
 
             // When
             BannerResponse result = bannerService.findById(bannerId);
@@ -215,7 +264,7 @@ class BannerServiceTest {
             assertEquals(2, result.getDisplayOrder());
             assertTrue(result.getActive());
 
-            verify(bannerRepository).findById(bannerId);
+            verify(bannerRepository).findResponseById(bannerId);
         }
 
         @Test
@@ -223,7 +272,7 @@ class BannerServiceTest {
         void shouldThrowExceptionWhenNotFound() {
             // Given
             Long bannerId = 999L;
-            when(bannerRepository.findById(bannerId)).thenReturn(Optional.empty());
+            when(bannerRepository.findResponseById(bannerId)).thenReturn(Optional.empty());
 
             // When & Then
             IllegalArgumentException exception = assertThrows(
@@ -232,7 +281,7 @@ class BannerServiceTest {
             );
 
             assertEquals("Banner not found", exception.getMessage());
-            verify(bannerRepository).findById(bannerId);
+            verify(bannerRepository).findResponseById(bannerId);
         }
 
         @Test
@@ -240,7 +289,7 @@ class BannerServiceTest {
         void shouldFindInactiveBanner() {
             // Given
             Long bannerId = 3L;
-            when(bannerRepository.findById(bannerId)).thenReturn(Optional.of(testBanner3));
+            when(bannerRepository.findResponseById(bannerId)).thenReturn(Optional.of(BannerResponse.fromEntity(testBanner3)));
 
             // When
             BannerResponse result = bannerService.findById(bannerId);
@@ -250,7 +299,7 @@ class BannerServiceTest {
             assertEquals("Inactive Banner", result.getTitle());
             assertFalse(result.getActive());
 
-            verify(bannerRepository).findById(bannerId);
+            verify(bannerRepository).findResponseById(bannerId);
         }
     }
 
@@ -389,12 +438,14 @@ class BannerServiceTest {
             updatedBanner.setActive(request.getActive());
             updatedBanner.setCreatedAt(LocalDateTime.now());
             updatedBanner.setUpdatedAt(LocalDateTime.now());
+            updatedBanner.setVersion(1L);
 
-            when(bannerRepository.findById(bannerId)).thenReturn(Optional.of(testBanner1));
-            when(bannerRepository.save(any(Banner.class))).thenReturn(updatedBanner);
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(bannerRepository.updateReturning(eq(bannerId), isNull(), eq(request), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(updatedBanner));
 
             // When
-            BannerResponse result = bannerService.update(bannerId, request);
+            BannerResponse result = bannerService.update(bannerId, request, null);
 
             // Then
             assertNotNull(result);
@@ -404,9 +455,10 @@ class BannerServiceTest {
             assertEquals("http://example.com/updated-summer", result.getLinkUrl());
             assertEquals(20, result.getDisplayOrder());
             assertFalse(result.getActive());
+            assertEquals(1L, result.getVersion());
 
-            verify(bannerRepository).findById(bannerId);
-            verify(bannerRepository).save(any(Banner.class));
+            verify(bannerRepository, never()).findById(any());
+            verify(bannerRepository, never()).save(any(Banner.class));
         }
 
         @Test
@@ -414,19 +466,35 @@ class BannerServiceTest {
         void shouldThrowExceptionWhenUpdatingNonExistent() {
             // Given
             Long bannerId = 999L;
-            when(bannerRepository.findById(bannerId)).thenReturn(Optional.empty());
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(bannerRepository.updateIfVersion(eq(bannerId), eq(5L), eq(testRequest), any(LocalDateTime.class)))
+                    .thenReturn(0);
+            when(bannerRepository.existsById(bannerId)).thenReturn(false);
 
             // When & Then
             IllegalArgumentException exception = assertThrows(
                     IllegalArgumentException.class,
-                    () -> bannerService.update(bannerId, testRequest)
+                    () -> bannerService.update(bannerId, testRequest, 5L)
             );
 
             assertEquals("Banner not found", exception.getMessage());
-            verify(bannerRepository).findById(bannerId);
             verify(bannerRepository, never()).save(any(Banner.class));
         }
 
+        @Test
+        @DisplayName("Should fail the precondition when the banner has a newer version")
+        void shouldRejectStaleVersion() {
+            // Given
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(bannerRepository.updateIfVersion(eq(1L), eq(5L), eq(testRequest), any(LocalDateTime.class)))
+                    .thenReturn(0);
+            when(bannerRepository.existsById(1L)).thenReturn(true);
+
+            // When & Then
+            assertThrows(PreconditionFailedException.class, () -> bannerService.update(1L, testRequest, 5L));
+            verify(bannerRepository, never()).findResponseById(any());
+        }
+
         @Test
         @DisplayName("Should update banner to inactive")
         void shouldUpdateBannerToInactive() {
@@ -445,18 +513,19 @@ class BannerServiceTest {
             updatedBanner.setCreatedAt(LocalDateTime.now());
             updatedBanner.setUpdatedAt(LocalDateTime.now());
 
-            when(bannerRepository.findById(bannerId)).thenReturn(Optional.of(testBanner1));
-            when(bannerRepository.save(any(Banner.class))).thenReturn(updatedBanner);
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(bannerRepository.updateIfVersion(eq(bannerId), isNull(), eq(request), any(LocalDateTime.class)))
+                    .thenReturn(1);
+            when(bannerRepository.findResponseById(bannerId)).thenReturn(Optional.of(BannerResponse.fromEntity(updatedBanner)));
 
             // When
-            BannerResponse result = bannerService.update(bannerId, request);
+            BannerResponse result = bannerService.update(bannerId, request, null);
 
             // Then
             assertNotNull(result);
             assertFalse(result.getActive());
 
-            verify(bannerRepository).findById(bannerId);
-            verify(bannerRepository).save(any(Banner.class));
+            verify(bannerRepository, never()).save(any(Banner.class));
         }
     }
 
@@ -480,6 +549,7 @@ class BannerServiceTest {
             // Then
             verify(bannerRepository).existsById(bannerId);
             verify(bannerRepository).deleteById(bannerId);
+            verify(eventPublisher).publishEvent(BannerChangedEvent.deleted(bannerId));
         }
 
         @Test
@@ -514,6 +584,7 @@ class BannerServiceTest {
             // Then
             verify(bannerRepository).existsById(bannerId);
             verify(bannerRepository).deleteById(bannerId);
+            verify(eventPublisher).publishEvent(BannerChangedEvent.deleted(bannerId));
         }
     }
 
@@ -644,4 +715,10 @@ class BannerServiceTest {
             verify(bannerRepository).save(any(Banner.class));
         }
     }
+
+    private static List<BannerResponse> responses(Banner... banners) {
+        return Arrays.stream(banners)
+                .map(BannerResponse::fromEntity)
+                .toList();
+    }
 }
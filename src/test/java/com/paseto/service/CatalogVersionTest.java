@@ -0,0 +1,101 @@
+package com.paseto.service;
+
+import com.paseto.event.ProductChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogVersion Unit Tests")
+class CatalogVersionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @SuppressWarnings("unchecked")
+    private void givenDatabaseVersions(Long first, Long... next) {
+        List<Long>[] rows = new List[next.length];
+        for (int i = 0; i < next.length; i++) {
+            rows[i] = List.of(next[i]);
+        }
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(first), rows);
+    }
+
+    @Test
+    @DisplayName("Should read the database again after a product change")
+    void shouldRereadAfterProductChange() {
+        // Given
+        CatalogVersion catalogVersion = new CatalogVersion(jdbcTemplate, Duration.ofHours(1));
+        givenDatabaseVersions(100L, 200L);
+        long initial = catalogVersion.current();
+
+        // When
+        catalogVersion.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // Then
+        assertNotEquals(initial, catalogVersion.current());
+    }
+
+    @Test
+    @DisplayName("Should keep version stable without changes and not query again")
+    void shouldStayStableWithoutChanges() {
+        // Given
+        CatalogVersion catalogVersion = new CatalogVersion(jdbcTemplate, Duration.ofHours(1));
+        givenDatabaseVersions(100L);
+
+        // When & Then
+        assertEquals(catalogVersion.current(), catalogVersion.current());
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should increment the counter row when bumped")
+    void shouldIncrementCounterRow() {
+        // Given
+        CatalogVersion catalogVersion = new CatalogVersion(jdbcTemplate, Duration.ofHours(1));
+
+        // When
+        catalogVersion.bump();
+
+        // Then
+        verify(jdbcTemplate).update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+    }
+
+    @Test
+    @DisplayName("Should report version 0 while the counter row is missing")
+    void shouldReportZeroWithoutCounterRow() {
+        // Given
+        CatalogVersion catalogVersion = new CatalogVersion(jdbcTemplate, Duration.ofHours(1));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of());
+
+        // When & Then
+        assertEquals(0L, catalogVersion.current());
+    }
+
+    @Test
+    @DisplayName("Should pick up changes made elsewhere once the version is older than max-age")
+    void shouldSeeChangesFromOtherWritersAfterMaxAge() {
+        // Given - another instance wrote between the two reads
+        CatalogVersion catalogVersion = new CatalogVersion(jdbcTemplate, Duration.ZERO);
+        givenDatabaseVersions(100L, 200L);
+
+        // When
+        long before = catalogVersion.current();
+        long after = catalogVersion.current();
+
+        // Then
+        assertEquals(100L, before);
+        assertEquals(200L, after);
+    }
+}
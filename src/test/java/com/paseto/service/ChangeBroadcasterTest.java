@@ -0,0 +1,183 @@
+package com.paseto.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paseto.event.BannerChangedEvent;
+import com.paseto.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChangeBroadcaster Unit Tests")
+class ChangeBroadcasterTest {
+
+    private ChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        // Queues of 4, a ring of 8; stock batches only when the test flushes them
+        broadcaster = new ChangeBroadcaster(new ObjectMapper(), 4, 8,
+                Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should push committed changes to subscribers of their topic only")
+    void shouldPushChangesByTopic() {
+        // Given
+        RecordingEmitter products = subscribe(ChangeBroadcaster.Topic.PRODUCTS, null);
+        RecordingEmitter banners = subscribe(ChangeBroadcaster.Topic.BANNERS, null);
+
+        // When
+        broadcaster.onProductChanged(ProductChangedEvent.deleted(7L));
+        broadcaster.onBannerChanged(BannerChangedEvent.updated(3L));
+
+        // Then
+        awaitTrue(() -> products.events().size() == 2 && banners.events().size() == 2);
+        assertTrue(products.events().get(0).contains("event:ready"));
+        assertTrue(products.events().get(1).contains("event:product"));
+        assertTrue(products.events().get(1).contains("{\"type\":\"deleted\",\"id\":7}"));
+        assertTrue(banners.events().get(1).contains("{\"type\":\"updated\",\"id\":3}"));
+    }
+
+    @Test
+    @DisplayName("Should batch stock changes into one notice")
+    void shouldBatchStockChanges() {
+        // Given
+        RecordingEmitter products = subscribe(ChangeBroadcaster.Topic.PRODUCTS, null);
+
+        // When
+        broadcaster.onProductChanged(ProductChangedEvent.stockChanged(7L));
+        broadcaster.onProductChanged(ProductChangedEvent.stockChanged(7L));
+        broadcaster.onProductChanged(ProductChangedEvent.stockChanged(9L));
+        broadcaster.flushStock();
+
+        // Then
+        awaitTrue(() -> products.events().size() == 2);
+        String stock = products.events().get(1);
+        assertTrue(stock.contains("event:stock"));
+        assertTrue(stock.contains("7") && stock.contains("9"));
+    }
+
+    @Test
+    @DisplayName("Should replay missed changes after Last-Event-ID and ask for a resync when they are gone")
+    void shouldReplayMissedChanges() {
+        // Given - events 1 to 3
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.onProductChanged(ProductChangedEvent.deleted(id));
+        }
+
+        // When
+        RecordingEmitter resumed = subscribe(ChangeBroadcaster.Topic.PRODUCTS, broadcaster.eventId(1));
+        RecordingEmitter unknown = subscribe(ChangeBroadcaster.Topic.PRODUCTS, broadcaster.eventId(99));
+
+        // Then
+        awaitTrue(() -> resumed.events().size() == 2 && unknown.events().size() == 1);
+        assertTrue(resumed.events().get(0).contains("id:" + broadcaster.eventId(2)));
+        assertTrue(resumed.events().get(1).contains("id:" + broadcaster.eventId(3)));
+        assertTrue(unknown.events().get(0).contains("event:resync"));
+    }
+
+    @Test
+    @DisplayName("Should ask for a resync when Last-Event-ID comes from before a restart")
+    void shouldResyncAfterRestart() {
+        // Given - the previous process handed out id 1 as well
+        broadcaster.onProductChanged(ProductChangedEvent.deleted(1L));
+        broadcaster.onProductChanged(ProductChangedEvent.deleted(2L));
+        String beforeRestart = "0-1";
+
+        // When
+        RecordingEmitter resumed = subscribe(ChangeBroadcaster.Topic.PRODUCTS, beforeRestart);
+        RecordingEmitter legacy = subscribe(ChangeBroadcaster.Topic.PRODUCTS, "1");
+
+        // Then
+        awaitTrue(() -> resumed.events().size() == 1 && legacy.events().size() == 1);
+        assertTrue(resumed.events().get(0).contains("event:resync"));
+        assertTrue(legacy.events().get(0).contains("event:resync"));
+    }
+
+    @Test
+    @DisplayName("Should disconnect a slow subscriber without holding back the others")
+    void shouldEvictSlowSubscriber() {
+        // Given - one client whose socket never drains
+        CountDownLatch never = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(never);
+        broadcaster.register(ChangeBroadcaster.Topic.PRODUCTS, null, slow);
+        RecordingEmitter fast = subscribe(ChangeBroadcaster.Topic.PRODUCTS, null);
+
+        // When - more changes than its queue holds, each one delivered to the fast client before the next
+        for (long id = 1; id <= 6; id++) {
+            broadcaster.onProductChanged(ProductChangedEvent.deleted(id));
+            int delivered = (int) id + 1;
+            awaitTrue(() -> fast.events().size() == delivered);
+        }
+
+        // Then
+        assertEquals(1, broadcaster.subscriberCount());
+        never.countDown();
+    }
+
+    private RecordingEmitter subscribe(ChangeBroadcaster.Topic topic, String lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        broadcaster.register(topic, lastEventId, emitter);
+        return emitter;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Records what would be written to the client; optionally blocks like a full socket
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocker;
+
+        RecordingEmitter(CountDownLatch blocker) {
+            this.blocker = blocker;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (blocker != null) {
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            String event = builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining());
+            if (!event.startsWith(":")) {
+                events.add(event);
+            }
+        }
+
+        List<String> events() {
+            return events;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductStoreStatsResponse;
+import com.paseto.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OffHeapProductStore Unit Tests")
+class OffHeapProductStoreTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_789);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OffHeapProductStore store;
+
+    @BeforeEach
+    void setUp() {
+        // Room for 16 rows, so the tests below also grow the segments
+        store = newStore("");
+        store.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    private OffHeapProductStore newStore(String snapshotPath) {
+        // No scheduled catch-up; the tests call catchUp() themselves
+        return new OffHeapProductStore(jdbcTemplate, transactionManager, new ChangeHorizon(Duration.ofSeconds(5)),
+                true, 1000, 16, snapshotPath, Duration.ofHours(1), Duration.ZERO);
+    }
+
+    private ProductResponse product(Long id, String name, Integer stock, Long version) {
+        return new ProductResponse(id, name, "Beschreibung – ünïcode", new BigDecimal("1234.50"), stock,
+                null, "SKU-" + id, true, CREATED, CREATED.plusDays(1), version);
+    }
+
+    @Nested
+    @DisplayName("Read Tests")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Should return exactly what was stored, nulls and non-ASCII text included")
+        void shouldRoundTripProduct() {
+            // Given
+            ProductResponse product = product(1L, "Wireless Headphones", 7, 2L);
+
+            // When
+            store.onProductChanged(ProductChangedEvent.created(product));
+
+            // Then
+            assertTrue(store.isReady());
+            assertEquals(product, store.find(1L));
+            assertNull(store.find(2L));
+        }
+
+        @Test
+        @DisplayName("Should keep every product readable after the segments grow")
+        void shouldGrowSegments() {
+            // When
+            for (long id = 1; id <= 500; id++) {
+                store.onProductChanged(ProductChangedEvent.created(product(id, "Product " + id, (int) id, 0L)));
+            }
+
+            // Then
+            for (long id = 1; id <= 500; id++) {
+                assertEquals("Product " + id, store.find(id).getName());
+                assertEquals((int) id, store.find(id).getStock());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Write Tests")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Should replace a product on update and ignore an older version")
+        void shouldReplaceOnUpdate() {
+            // Given
+            store.onProductChanged(ProductChangedEvent.created(product(1L, "Old Name", 5, 1L)));
+
+            // When
+            store.onProductChanged(ProductChangedEvent.updated(product(1L, "New Name", 4, 3L)));
+            store.onProductChanged(ProductChangedEvent.updated(product(1L, "Stale Name", 5, 2L)));
+
+            // Then
+            assertEquals("New Name", store.find(1L).getName());
+            assertEquals(3L, store.find(1L).getVersion());
+            assertEquals(1L, store.stats().getDeadRows());
+        }
+
+        @Test
+        @DisplayName("Should remove deleted products and keep their neighbours")
+        void shouldRemoveDeletedProducts() {
+            // Given
+            for (long id = 1; id <= 40; id++) {
+                store.onProductChanged(ProductChangedEvent.created(product(id, "Product " + id, 1, 0L)));
+            }
+
+            // When - every other id, so removal has to shift probed entries back
+            for (long id = 1; id <= 40; id += 2) {
+                store.onProductChanged(ProductChangedEvent.deleted(id));
+            }
+
+            // Then
+            for (long id = 1; id <= 40; id++) {
+                if (id % 2 == 1) {
+                    assertNull(store.find(id));
+                } else {
+                    assertEquals("Product " + id, store.find(id).getName());
+                }
+            }
+            assertEquals(20L, store.stats().getProducts());
+        }
+
+        @Test
+        @DisplayName("Should compact away dead rows once they pile up")
+        void shouldCompactDeadRows() {
+            // Given
+            for (long id = 1; id <= 10; id++) {
+                store.onProductChanged(ProductChangedEvent.created(product(id, "Product " + id, 1, 0L)));
+            }
+
+            // When
+            for (long version = 1; version <= 200; version++) {
+                for (long id = 1; id <= 10; id++) {
+                    store.onProductChanged(ProductChangedEvent.updated(product(id, "Product " + id + " v" + version, 1, version)));
+                }
+            }
+
+            // Then
+            ProductStoreStatsResponse stats = store.stats();
+            assertEquals(10L, stats.getProducts());
+            assertTrue(stats.getDeadRows() < 1024, "dead rows: " + stats.getDeadRows());
+            assertEquals("Product 3 v200", store.find(3L).getName());
+        }
+    }
+
+    @Nested
+    @DisplayName("Catch-up Tests")
+    class CatchUpTests {
+
+        @Test
+        @DisplayName("Should apply writes and deletes made elsewhere without reviving products deleted meanwhile")
+        void shouldCatchUpWithDatabase() throws Exception {
+            // Given
+            for (long id = 1; id <= 3; id++) {
+                store.onProductChanged(ProductChangedEvent.created(product(id, "Product " + id, 1, 0L)));
+            }
+            // Product 1 was renamed through another instance; product 3 is deleted here after its row was read
+            ResultSet renamed = row(1L, "Renamed Elsewhere", 1L);
+            ResultSet deletedHere = row(3L, "Product 3", 0L);
+            doAnswer(invocation -> {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                handler.processRow(renamed);
+                store.onProductChanged(ProductChangedEvent.deleted(3L));
+                handler.processRow(deletedHere);
+                return null;
+            }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+            // Product 2 was deleted through another instance
+            when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenReturn(List.of(2L));
+
+            // When
+            store.catchUp();
+
+            // Then
+            assertEquals("Renamed Elsewhere", store.find(1L).getName());
+            assertNull(store.find(2L));
+            assertNull(store.find(3L));
+        }
+
+        private ResultSet row(long id, String name, long version) throws SQLException {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(id);
+            when(rs.getString("name")).thenReturn(name);
+            when(rs.getBigDecimal("price")).thenReturn(new BigDecimal("1234.50"));
+            when(rs.getObject("version", Long.class)).thenReturn(version);
+            return rs;
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot Tests")
+    class SnapshotTests {
+
+        @TempDir
+        private Path directory;
+
+        @Test
+        @DisplayName("Should restore products from the snapshot without reading the whole table")
+        void shouldRestoreFromSnapshot() throws Exception {
+            // Given
+            Path file = directory.resolve("products.snapshot");
+            OffHeapProductStore writer = newStore(file.toString());
+            writer.rebuild();
+            for (long id = 1; id <= 100; id++) {
+                writer.onProductChanged(ProductChangedEvent.created(product(id, "Product " + id, (int) id, 0L)));
+            }
+            writer.onProductChanged(ProductChangedEvent.deleted(50L));
+            writer.shutdown();
+
+            // When - the mocked database has no rows, so everything found came from the file
+            OffHeapProductStore restored = newStore(file.toString());
+            restored.build();
+
+            // Then
+            try {
+                assertTrue(Files.exists(file));
+                assertTrue(restored.isReady());
+                assertEquals(99L, restored.stats().getProducts());
+                assertEquals(product(7L, "Product 7", 7, 0L), restored.find(7L));
+                assertNull(restored.find(50L));
+
+                // Writes copy the mapped segments into native memory and carry on
+                restored.onProductChanged(ProductChangedEvent.updated(product(7L, "Renamed", 1, 1L)));
+                restored.onProductChanged(ProductChangedEvent.created(product(101L, "Product 101", 1, 0L)));
+                assertEquals("Renamed", restored.find(7L).getName());
+                assertEquals("Product 8", restored.find(8L).getName());
+                assertEquals("Product 101", restored.find(101L).getName());
+            } finally {
+                restored.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("Should fall back to a full build when the snapshot is unreadable")
+        void shouldIgnoreCorruptSnapshot() throws Exception {
+            // Given
+            Path file = directory.resolve("products.snapshot");
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+            // When
+            OffHeapProductStore restored = newStore(file.toString());
+            restored.build();
+
+            // Then
+            try {
+                assertTrue(restored.isReady());
+                assertEquals(0L, restored.stats().getProducts());
+            } finally {
+                restored.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should report less memory than the same products as heap objects")
+    void shouldReportFootprint() {
+        // Given
+        for (long id = 1; id <= 1000; id++) {
+            store.onProductChanged(ProductChangedEvent.created(product(id, "Product " + id, 1, 0L)));
+        }
+
+        // When
+        ProductStoreStatsResponse stats = store.stats();
+
+        // Then
+        assertEquals(1000L, stats.getProducts());
+        assertEquals(1000L * 80, stats.getRowBytes());
+        assertTrue(stats.getRowBytes() + stats.getTextBytes() + stats.getIndexHeapBytes() < stats.getEstimatedHeapBytes(),
+                () -> "store " + stats + " not smaller than heap estimate");
+    }
+}
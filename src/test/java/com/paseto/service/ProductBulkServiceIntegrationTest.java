@@ -0,0 +1,172 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductBulkResponse;
+import com.paseto.dto.ProductBulkResult;
+import com.paseto.entity.Product;
+import com.paseto.event.ProductChangedEvent;
+import com.paseto.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No test transaction: each chunk must commit on its own, as in production
+@SpringBootTest(properties = "catalog.bulk.chunk-size=2")
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@DisplayName("ProductBulkService Integration Tests")
+class ProductBulkServiceIntegrationTest {
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private Product existing;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+
+        existing = new Product();
+        existing.setName("Existing Product");
+        existing.setPrice(new BigDecimal("10.00"));
+        existing.setStock(5);
+        existing.setSku("BULK-000");
+        existing = productRepository.save(existing);
+    }
+
+    @Test
+    @DisplayName("Should apply NDJSON operations across chunks with one result per element")
+    void shouldApplyNdjsonOperations() throws Exception {
+        // Given - five elements with a chunk size of two
+        String body = String.join("\n",
+                "{\"op\":\"create\",\"product\":{\"name\":\"Bulk One\",\"price\":1.50,\"stock\":1,\"sku\":\"BULK-001\"}}",
+                "{\"op\":\"update\",\"id\":" + existing.getId() + ",\"product\":{\"name\":\"Renamed Product\",\"price\":12.00,\"stock\":7}}",
+                "{\"op\":\"delete\",\"id\":999999}",
+                "{\"op\":\"create\",\"product\":{\"price\":3.00,\"stock\":3}}",
+                "{\"op\":\"create\",\"product\":{\"name\":\"Bulk Two\",\"price\":2.50,\"stock\":2,\"sku\":\"BULK-002\"}}");
+
+        // When
+        ProductBulkResponse response = apply(body);
+
+        // Then
+        assertEquals(5, response.getTotal());
+        assertEquals(3, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+
+        List<ProductBulkResult> results = response.getResults();
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(ProductBulkResult::getIndex).toList());
+        assertEquals(List.of(201, 200, 404, 400, 201), results.stream().map(ProductBulkResult::getStatus).toList());
+        assertEquals("name: Name is required", results.get(3).getError());
+        assertNotNull(results.get(0).getId());
+
+        assertEquals("Renamed Product", productRepository.findById(existing.getId()).orElseThrow().getName());
+        assertEquals(3, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should accept a JSON array and delete existing products")
+    void shouldApplyJsonArray() throws Exception {
+        // Given
+        String body = "[{\"op\":\"delete\",\"id\":" + existing.getId() + "}," +
+                "{\"op\":\"delete\",\"id\":" + existing.getId() + "}]";
+
+        // When
+        ProductBulkResponse response = apply(body);
+
+        // Then - the second delete of the same id sees the product as gone
+        assertEquals(List.of(200, 404), response.getResults().stream().map(ProductBulkResult::getStatus).toList());
+        assertFalse(productRepository.existsById(existing.getId()));
+    }
+
+    @Test
+    @DisplayName("Should publish changes in element order when one chunk updates and then deletes a product")
+    void shouldPublishUpdateBeforeDeleteOfSameProduct() throws Exception {
+        // Given - both elements land in the same chunk
+        String body = "{\"op\":\"update\",\"id\":" + existing.getId() +
+                ",\"product\":{\"name\":\"Short Lived\",\"price\":11.00,\"stock\":1}}\n" +
+                "{\"op\":\"delete\",\"id\":" + existing.getId() + "}";
+
+        // When
+        ProductBulkResponse response = apply(body);
+
+        // Then - listeners apply the delete last and drop the product
+        assertEquals(List.of(200, 200), response.getResults().stream().map(ProductBulkResult::getStatus).toList());
+        assertFalse(productRepository.existsById(existing.getId()));
+
+        List<ProductChangedEvent.Type> types = applicationEvents.stream(ProductChangedEvent.class)
+                .filter(event -> existing.getId().equals(event.productId()))
+                .map(ProductChangedEvent::type)
+                .toList();
+        assertEquals(List.of(ProductChangedEvent.Type.UPDATED, ProductChangedEvent.Type.DELETED), types);
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate SKUs per element instead of rolling back the chunk")
+    void shouldRejectDuplicateSkuPerElement() throws Exception {
+        // Given - the first chunk clashes with a stored SKU, the second with an earlier element
+        String body = String.join("\n",
+                "{\"op\":\"create\",\"product\":{\"name\":\"Clash\",\"price\":1.00,\"stock\":1,\"sku\":\"BULK-000\"}}",
+                "{\"op\":\"update\",\"id\":" + existing.getId() + ",\"product\":{\"name\":\"Kept SKU\",\"price\":10.00,\"stock\":5,\"sku\":\"BULK-000\"}}",
+                "{\"op\":\"create\",\"product\":{\"name\":\"First\",\"price\":1.00,\"stock\":1,\"sku\":\"BULK-010\"}}",
+                "{\"op\":\"create\",\"product\":{\"name\":\"Second\",\"price\":1.00,\"stock\":1,\"sku\":\"BULK-010\"}}");
+
+        // When
+        ProductBulkResponse response = apply(body);
+
+        // Then
+        assertEquals(List.of(409, 200, 201, 409), response.getResults().stream().map(ProductBulkResult::getStatus).toList());
+        assertEquals("SKU already in use: BULK-010", response.getResults().get(3).getError());
+        assertEquals("Kept SKU", productRepository.findById(existing.getId()).orElseThrow().getName());
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should stop at a malformed element and keep the ones before it")
+    void shouldStopAtMalformedElement() throws Exception {
+        // Given
+        String body = "{\"op\":\"create\",\"product\":{\"name\":\"Bulk Three\",\"price\":1.00,\"stock\":1}}\n" +
+                "{\"op\":\"create\",\"product\":{\"name\":\n";
+
+        // When
+        ProductBulkResponse response = apply(body);
+
+        // Then
+        assertEquals(2, response.getTotal());
+        assertEquals(201, response.getResults().get(0).getStatus());
+        assertEquals(400, response.getResults().get(1).getStatus());
+        assertTrue(response.getResults().get(1).getError().startsWith("Malformed item"));
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown operations per element")
+    void shouldRejectUnknownOperation() throws Exception {
+        // When
+        ProductBulkResponse response = apply("{\"op\":\"upsert\",\"id\":1}");
+
+        // Then
+        assertEquals(1, response.getFailed());
+        assertEquals("Unsupported operation: upsert", response.getResults().get(0).getError());
+    }
+
+    private ProductBulkResponse apply(String body) throws Exception {
+        return productBulkService.apply(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.event.ProductChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.inOrder;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Product cache invalidation order Integration Tests")
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockitoSpyBean
+    private ProductCache productCache;
+
+    @MockitoSpyBean
+    private ProductJsonCache productJsonCache;
+
+    @MockitoSpyBean
+    private CatalogVersion catalogVersion;
+
+    @Test
+    @DisplayName("Should invalidate the product cache before the rendered body and bump the version last")
+    void shouldInvalidateInLoaderOrder() {
+        // Given
+        ProductChangedEvent event = ProductChangedEvent.updated(new ProductResponse(1L, "Keyboard", null,
+                new BigDecimal("10.00"), 1, null, "KEY-001", true, LocalDateTime.now(), LocalDateTime.now(), 1L));
+
+        // When - no transaction, so the listeners run right away
+        eventPublisher.publishEvent(event);
+
+        // Then
+        InOrder order = inOrder(productCache, productJsonCache, catalogVersion);
+        order.verify(productCache).onProductChanged(event);
+        order.verify(productJsonCache).onProductChanged(event);
+        order.verify(catalogVersion).onProductChanged(event);
+    }
+}
@@ -0,0 +1,143 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductChanges;
+import com.paseto.dto.ProductRequest;
+import com.paseto.dto.ProductResponse;
+import com.paseto.entity.Product;
+import com.paseto.repository.ProductRepository;
+import com.paseto.repository.ProductTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No test transaction: deletes and their tombstones commit as in production.
+// No safety lag, so a write is visible to the very next sync.
+@SpringBootTest(properties = "catalog.changes.safety-lag=0s")
+@ActiveProfiles("test")
+@DisplayName("ProductChangesService Integration Tests")
+class ProductChangesServiceIntegrationTest {
+
+    @Autowired
+    private ProductChangesService productChangesService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Autowired
+    private ChangeHorizon changeHorizon;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productTombstoneRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return the whole catalog in pages on a first sync")
+    void shouldSyncWholeCatalog() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            product("SYNC-00" + i);
+        }
+
+        // When
+        List<Long> synced = new ArrayList<>();
+        String watermark = null;
+        ProductChanges changes;
+        do {
+            changes = productChangesService.changesSince(watermark, 2);
+            changes.getItems().forEach(product -> synced.add(product.getId()));
+            watermark = changes.getWatermark();
+        } while (changes.isHasMore());
+
+        // Then
+        assertEquals(5, synced.size());
+        assertEquals(5, synced.stream().distinct().count());
+        assertTrue(productChangesService.changesSince(watermark, 2).getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return only products written and deleted after the watermark")
+    void shouldReturnChangesSinceWatermark() {
+        // Given
+        Product kept = product("SYNC-010");
+        Product updated = product("SYNC-011");
+        Product deleted = product("SYNC-012");
+        String watermark = productChangesService.changesSince(null, 10).getWatermark();
+
+        // When
+        ProductRequest request = new ProductRequest();
+        request.setName("Updated Sync Product");
+        request.setPrice(new BigDecimal("12.00"));
+        request.setStock(3);
+        request.setSku("SYNC-011");
+        request.setActive(true);
+        productService.update(updated.getId(), request, null);
+        productService.delete(deleted.getId());
+        ProductChanges changes = productChangesService.changesSince(watermark, 10);
+
+        // Then
+        assertEquals(List.of(updated.getId()), changes.getItems().stream().map(ProductResponse::getId).toList());
+        assertEquals("Updated Sync Product", changes.getItems().get(0).getName());
+        assertEquals(List.of(deleted.getId()), changes.getDeletedIds());
+        assertFalse(changes.isHasMore());
+        assertTrue(productRepository.existsById(kept.getId()));
+
+        ProductChanges none = productChangesService.changesSince(changes.getWatermark(), 10);
+        assertTrue(none.getItems().isEmpty());
+        assertTrue(none.getDeletedIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not move the watermark past a running import")
+    void shouldHoldWatermarkDuringImport() {
+        // Given - an import merge stamps its rows after taking the hold and commits much later
+        String watermark = productChangesService.changesSince(null, 10).getWatermark();
+        ProductChanges duringImport;
+        Product imported;
+        try (ChangeHorizon.Hold hold = changeHorizon.hold()) {
+            imported = product("SYNC-020");
+
+            // When
+            duringImport = productChangesService.changesSince(watermark, 10);
+        }
+        ProductChanges afterImport = productChangesService.changesSince(duringImport.getWatermark(), 10);
+
+        // Then - held back while the import ran, delivered once it finished
+        assertTrue(duringImport.getItems().isEmpty());
+        assertEquals(List.of(imported.getId()), afterImport.getItems().stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed watermark")
+    void shouldRejectInvalidWatermark() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productChangesService.changesSince("not-a-watermark", 10));
+        assertEquals("Invalid watermark", exception.getMessage());
+    }
+
+    private Product product(String sku) {
+        Product product = new Product();
+        product.setName("Sync Product " + sku);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        product.setSku(sku);
+        return productRepository.save(product);
+    }
+}
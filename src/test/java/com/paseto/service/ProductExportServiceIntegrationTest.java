@@ -0,0 +1,102 @@
+package com.paseto.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paseto.entity.Product;
+import com.paseto.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("ProductExportService Integration Tests")
+class ProductExportServiceIntegrationTest {
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+
+        for (int i = 1; i <= 3; i++) {
+            Product product = new Product();
+            product.setName("Export Product " + i);
+            product.setDescription("Product " + i + " for export");
+            product.setPrice(new BigDecimal("10.50").multiply(BigDecimal.valueOf(i)));
+            product.setStock(i * 10);
+            product.setSku("EXP-00" + i);
+            product.setActive(i != 2);
+            productRepository.save(product);
+        }
+        productRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should export one JSON object per line as NDJSON")
+    void shouldExportNdjson() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = productExportService.export(out, ProductExportService.Format.NDJSON);
+
+        // Then
+        assertEquals(3, written);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Export Product 1", first.get("name").asText());
+        assertEquals(new BigDecimal("10.50"), first.get("price").decimalValue());
+        assertTrue(first.get("active").asBoolean());
+        assertTrue(first.get("createdAt").isTextual());
+        assertFalse(objectMapper.readTree(lines[1]).get("active").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Should export all products as a JSON array")
+    void shouldExportJsonArray() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        productExportService.export(out, ProductExportService.Format.JSON);
+
+        // Then
+        JsonNode products = objectMapper.readTree(out.toByteArray());
+        assertTrue(products.isArray());
+        assertEquals(3, products.size());
+        assertEquals("EXP-003", products.get(2).get("sku").asText());
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported export format")
+    void shouldRejectUnsupportedFormat() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ProductExportService.Format.from("xml")
+        );
+
+        assertEquals("Unsupported export format: xml", exception.getMessage());
+    }
+}
@@ -0,0 +1,125 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductImportRejection;
+import com.paseto.dto.ProductImportResponse;
+import com.paseto.entity.Product;
+import com.paseto.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No test transaction: each chunk must commit on its own, as in production
+@SpringBootTest(properties = {"catalog.bulk.chunk-size=2", "catalog.import.max-reported-rejections=2"})
+@ActiveProfiles("test")
+@DisplayName("ProductImportService Integration Tests")
+class ProductImportServiceIntegrationTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+
+        Product existing = new Product();
+        existing.setName("Existing Product");
+        existing.setPrice(new BigDecimal("10.00"));
+        existing.setStock(5);
+        existing.setSku("CSV-000");
+        productRepository.save(existing);
+    }
+
+    @Test
+    @DisplayName("Should insert new SKUs, update existing ones and keep quoted fields intact")
+    void shouldUpsertBySku() throws Exception {
+        // Given - columns out of order, CRLF line ends and a quoted field with a comma, quote and line break
+        String csv = "sku,price,stock,name,description\r\n" +
+                "CSV-000,12.50,7,Renamed Product,\r\n" +
+                "CSV-001,1.99,100,Cable,\"Braided, \"\"strong\"\"\nand long\"\r\n" +
+                "CSV-002,2.99,50,Adapter,\r\n";
+
+        // When
+        ProductImportResponse response = importCsv(csv);
+
+        // Then
+        assertEquals(3, response.getRows());
+        assertEquals(3, response.getAccepted());
+        assertEquals(0, response.getRejected());
+        assertEquals(2, response.getInserted());
+        assertEquals(1, response.getUpdated());
+
+        assertEquals(3, productRepository.count());
+        Product updated = productRepository.findBySkuIn(List.of("CSV-000")).get(0);
+        assertEquals("Renamed Product", updated.getName());
+        assertEquals(7, updated.getStock());
+        Product cable = productRepository.findBySkuIn(List.of("CSV-001")).get(0);
+        assertEquals("Braided, \"strong\"\nand long", cable.getDescription());
+    }
+
+    @Test
+    @DisplayName("Should skip invalid rows and report them with their line number")
+    void shouldRejectInvalidRows() throws Exception {
+        // Given
+        String csv = "name,price,stock,sku,active\n" +
+                "Cable,abc,1,CSV-010,\n" +
+                "\n" +
+                ",1.00,1,CSV-011,\n" +
+                "Adapter,1.00,1,,\n" +
+                "Hub,3.00,2,CSV-012,maybe\n" +
+                "Dock,9.00,3,CSV-013,false\n";
+
+        // When
+        ProductImportResponse response = importCsv(csv);
+
+        // Then - the blank line is not a row, and only two rejections are listed
+        assertEquals(5, response.getRows());
+        assertEquals(1, response.getAccepted());
+        assertEquals(4, response.getRejected());
+        assertEquals(List.of(2L, 4L), response.getRejections().stream().map(ProductImportRejection::getLine).toList());
+        assertEquals("price: not a number", response.getRejections().get(0).getReason());
+        assertEquals("name: Name is required", response.getRejections().get(1).getReason());
+
+        Product dock = productRepository.findBySkuIn(List.of("CSV-013")).get(0);
+        assertFalse(dock.getActive());
+    }
+
+    @Test
+    @DisplayName("Should let the last line win for a repeated SKU")
+    void shouldKeepLastLineForRepeatedSku() throws Exception {
+        // When
+        ProductImportResponse response = importCsv("name,price,stock,sku\n" +
+                "First,1.00,1,CSV-020\n" +
+                "Second,2.00,2,CSV-020\n");
+
+        // Then
+        assertEquals(1, response.getInserted());
+        assertEquals("Second", productRepository.findBySkuIn(List.of("CSV-020")).get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should fail the import when a required column is missing")
+    void shouldRequireColumns() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> importCsv("name,price\nCable,1.00\n"));
+        assertEquals("Missing CSV columns: sku, stock", exception.getMessage());
+        assertEquals(1, productRepository.count());
+    }
+
+    private ProductImportResponse importCsv(String csv) throws Exception {
+        return productImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
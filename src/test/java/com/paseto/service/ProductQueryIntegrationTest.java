@@ -0,0 +1,189 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductFilter;
+import com.paseto.dto.ProductPage;
+import com.paseto.dto.ProductResponse;
+import com.paseto.entity.Product;
+import com.paseto.repository.ProductRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The inspector hands over the SQL Hibernate generates, so the plan checked is the real query's
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.paseto.service.ProductQueryIntegrationTest$RecordingInspector")
+@ActiveProfiles("test")
+@DisplayName("Product Query Integration Tests")
+class ProductQueryIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        for (int i = 1; i <= 30; i++) {
+            Product product = new Product();
+            product.setName("Query Product " + i);
+            product.setPrice(new BigDecimal(i % 10 + 1).setScale(2));
+            product.setStock(i % 3 == 0 ? 0 : i);
+            product.setSku("QRY-" + i);
+            product.setActive(i % 5 != 0);
+            productRepository.save(product);
+        }
+    }
+
+    static Stream<Arguments> filterCombinations() {
+        BigDecimal low = new BigDecimal("3.00");
+        BigDecimal high = new BigDecimal("7.00");
+        return Stream.of(
+                Arguments.of("price range", new ProductFilter(low, high, null, null, null), "price_asc"),
+                Arguments.of("min price", new ProductFilter(low, null, null, null, null), "price_desc"),
+                Arguments.of("in stock", new ProductFilter(null, null, true, null, null), "newest"),
+                Arguments.of("sold out", new ProductFilter(null, null, false, null, null), "newest"),
+                Arguments.of("active", new ProductFilter(null, null, null, true, null), "newest"),
+                Arguments.of("active in stock", new ProductFilter(null, null, true, true, null), "newest"),
+                Arguments.of("sku", new ProductFilter(null, null, null, null, "QRY-7"), "newest"),
+                Arguments.of("price range, active", new ProductFilter(low, high, null, true, null), "price_asc"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterCombinations")
+    @DisplayName("Should read each filter combination through an index")
+    void shouldUseIndex(String name, ProductFilter filter, String sort) {
+        // Given
+        RecordingInspector.clear();
+
+        // When
+        productService.query(filter, sort, null, 5);
+        String plan = explain(RecordingInspector.last());
+
+        // Then
+        assertTrue(plan.contains("IDX_PRODUCTS_"), () -> name + " did not use an index: " + plan);
+        assertFalse(plan.contains("tableScan"), () -> name + " scanned the table: " + plan);
+    }
+
+    @Test
+    @DisplayName("Should page through a filtered result with cursors without gaps or repeats")
+    void shouldPageWithCursors() {
+        // Given - prices repeat, so the id has to break ties between pages
+        ProductFilter filter = new ProductFilter(new BigDecimal("2.00"), new BigDecimal("8.00"), true, true, null);
+        List<ProductResponse> expected = productRepository.findAll().stream()
+                .filter(p -> p.getPrice().compareTo(filter.getMinPrice()) >= 0)
+                .filter(p -> p.getPrice().compareTo(filter.getMaxPrice()) <= 0)
+                .filter(p -> p.getStock() > 0 && p.getActive())
+                .map(ProductResponse::fromEntity)
+                .sorted((a, b) -> {
+                    int byPrice = a.getPrice().compareTo(b.getPrice());
+                    return byPrice != 0 ? byPrice : a.getId().compareTo(b.getId());
+                })
+                .toList();
+
+        // When
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPage<ProductResponse> page = productService.query(filter, "price_asc", cursor, 4);
+            page.getItems().forEach(p -> seen.add(p.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(expected.stream().map(ProductResponse::getId).toList(), seen);
+    }
+
+    @Test
+    @DisplayName("Should read and return only the requested fields")
+    void shouldSelectOnlyRequestedFields() {
+        // Given
+        RecordingInspector.clear();
+
+        // When
+        ProductPage<Map<String, Object>> page = productService.queryFields(
+                new ProductFilter(), "price_asc", "name,sku", null, 5);
+        String sql = RecordingInspector.last();
+
+        // Then - price and id are read for the cursor but not returned
+        assertEquals(5, page.getItems().size());
+        page.getItems().forEach(row -> assertEquals(List.of("name", "sku"), List.copyOf(row.keySet())));
+        assertFalse(sql.contains("description"), sql);
+        assertFalse(sql.contains("updated_at"), sql);
+
+        ProductPage<Map<String, Object>> next = productService.queryFields(
+                new ProductFilter(), "price_asc", "name,sku", page.getNextCursor(), 5);
+        assertEquals(5, next.getItems().size());
+        assertNotEquals(page.getItems().get(0).get("sku"), next.getItems().get(0).get("sku"));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another sort")
+    void shouldRejectCursorOfOtherSort() {
+        // Given
+        String cursor = productService.query(new ProductFilter(), "price_asc", null, 2).getNextCursor();
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productService.query(new ProductFilter(), "newest", cursor, 2));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown sort and an inverted price range")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.query(new ProductFilter(), "cheapest", null, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.query(new ProductFilter(new BigDecimal("9"), new BigDecimal("1"), null, null, null),
+                        "newest", null, 2));
+    }
+
+    // H2 plans a statement without its parameters unless EXPLAIN ANALYZE is asked for
+    private String explain(String sql) {
+        assertNotNull(sql, "No products query was recorded");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+        static void clear() {
+            LAST.remove();
+        }
+
+        static String last() {
+            return LAST.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select") && sql.contains("products")) {
+                LAST.set(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductSearchIndex Unit Tests")
+class ProductSearchIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Parallel threshold of 1 so every query goes through the fork-join path as well
+        index = new ProductSearchIndex(jdbcTemplate, transactionManager, true, 1000, 1, 2);
+
+        index.onProductChanged(ProductChangedEvent.created(product(1L, "Wireless Headphones", "AUD-BT-001", "Noise-cancelling over-ear headphones")));
+        index.onProductChanged(ProductChangedEvent.created(product(2L, "Wireless Mouse", "MOU-WL-002", "Ergonomic mouse")));
+        index.onProductChanged(ProductChangedEvent.created(product(3L, "Mechanical Keyboard", "KEY-MC-003", "Works with wireless receivers")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    private ProductResponse product(Long id, String name, String sku, String description) {
+        return product(id, name, sku, description, 0L);
+    }
+
+    private ProductResponse product(Long id, String name, String sku, String description, Long version) {
+        return new ProductResponse(id, name, description, new BigDecimal("10.00"), 1, null, sku, true,
+                LocalDateTime.now(), LocalDateTime.now(), version);
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should rank name matches above description matches")
+        void shouldRankNameMatchesFirst() {
+            // When
+            List<Long> result = index.search("wireless", 10);
+
+            // Then - both name prefix matches (newest id first), then the description match
+            assertEquals(List.of(2L, 1L, 3L), result);
+        }
+
+        @Test
+        @DisplayName("Should match SKU substrings case-insensitively")
+        void shouldMatchSku() {
+            // When & Then
+            assertEquals(List.of(1L), index.search("aud-bt", 10));
+        }
+
+        @Test
+        @DisplayName("Should drop candidates whose trigrams match but text does not")
+        void shouldVerifyCandidates() {
+            // Given - every trigram of "xyzabc" occurs in the name, but not contiguously
+            index.onProductChanged(ProductChangedEvent.created(product(4L, "Xyzab Yzabc", "XY-004", "Split trigrams")));
+
+            // When & Then
+            assertTrue(index.search("xyzabc", 10).isEmpty());
+            assertEquals(List.of(4L), index.search("yzabc", 10));
+        }
+
+        @Test
+        @DisplayName("Should scan all products for queries shorter than a trigram")
+        void shouldHandleShortQueries() {
+            // When & Then
+            assertEquals(List.of(2L), index.search("mo", 10));
+        }
+
+        @Test
+        @DisplayName("Should limit number of results")
+        void shouldLimitResults() {
+            // When & Then
+            assertEquals(2, index.search("wireless", 2).size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Update Tests")
+    class IncrementalUpdateTests {
+
+        @Test
+        @DisplayName("Should reflect updated product fields")
+        void shouldReflectUpdates() {
+            // When
+            index.onProductChanged(ProductChangedEvent.updated(product(2L, "Gaming Mouse", "MOU-GM-002", "Wired mouse")));
+
+            // Then
+            assertEquals(List.of(1L, 3L), index.search("wireless", 10));
+            assertEquals(List.of(2L), index.search("gaming", 10));
+        }
+
+        @Test
+        @DisplayName("Should ignore a change older than the indexed version")
+        void shouldIgnoreOlderVersion() {
+            // Given
+            index.onProductChanged(ProductChangedEvent.updated(product(2L, "Gaming Mouse", "MOU-GM-002", "Wired mouse", 2L)));
+
+            // When - the event of an earlier update arrives late
+            index.onProductChanged(ProductChangedEvent.updated(product(2L, "Office Mouse", "MOU-OF-002", "Quiet mouse", 1L)));
+
+            // Then
+            assertEquals(List.of(2L), index.search("gaming", 10));
+            assertTrue(index.search("office", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should remove deleted product")
+        void shouldRemoveDeletedProduct() {
+            // When
+            index.onProductChanged(ProductChangedEvent.deleted(1L));
+
+            // Then
+            assertTrue(index.search("headphones", 10).isEmpty());
+            assertEquals(List.of(2L, 3L), index.search("wireless", 10));
+        }
+
+        @Test
+        @DisplayName("Should ignore changes when disabled")
+        void shouldIgnoreChangesWhenDisabled() {
+            // Given
+            ProductSearchIndex disabled = new ProductSearchIndex(jdbcTemplate, transactionManager, false, 1000, 0, 0);
+
+            // When
+            disabled.onProductChanged(ProductChangedEvent.created(product(4L, "Monitor", "MON-001", "4K display")));
+
+            // Then
+            assertFalse(disabled.isReady());
+            assertTrue(disabled.search("monitor", 10).isEmpty());
+        }
+    }
+}
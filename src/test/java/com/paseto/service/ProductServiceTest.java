@@ -1,9 +1,16 @@
 package com.paseto.service;
 
+import com.paseto.config.DatabasePlatform;
+import com.paseto.dto.ProductLookup;
+import com.paseto.dto.ProductPage;
 import com.paseto.dto.ProductRequest;
 import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductSummaryResponse;
 import com.paseto.entity.Product;
+import com.paseto.event.ProductChangedEvent;
+import com.paseto.exception.PreconditionFailedException;
 import com.paseto.repository.ProductRepository;
+import com.paseto.repository.ProductTombstoneRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,16 +18,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +49,34 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggester productSuggester;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private OffHeapProductStore offHeapProductStore;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private ProductJsonCache productJsonCache =
+            new ProductJsonCache(JsonMapper.builder().build(), DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+
     @InjectMocks
     private ProductService productService;
 
@@ -39,6 +86,10 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(productService, "maxLookupIds", 3);
+
         // Setup test products
         testProduct1 = new Product();
         testProduct1.setId(1L);
@@ -85,8 +136,8 @@ class ProductServiceTest {
         @DisplayName("Should return all products")
         void shouldReturnAllProducts() {
             // Given
-            List<Product> products = Arrays.asList(testProduct1, testProduct2);
-            when(productRepository.findAll()).thenReturn(products);
+            List<ProductResponse> products = responses(testProduct1, testProduct2);
+            when(productRepository.findAllResponses()).thenReturn(products);
 
             // When
             List<ProductResponse> result = productService.findAll();
@@ -97,14 +148,14 @@ class ProductServiceTest {
             assertEquals("Laptop", result.get(0).getName());
             assertEquals("Mouse", result.get(1).getName());
 
-            verify(productRepository).findAll();
+            verify(productRepository).findAllResponses();
         }
 
         @Test
         @DisplayName("Should return empty list when no products exist")
         void shouldReturnEmptyList() {
             // Given
-            when(productRepository.findAll()).thenReturn(List.of());
+            when(productRepository.findAllResponses()).thenReturn(List.of());
 
             // When
             List<ProductResponse> result = productService.findAll();
@@ -113,7 +164,225 @@ class ProductServiceTest {
             assertNotNull(result);
             assertTrue(result.isEmpty());
 
-            verify(productRepository).findAll();
+            verify(productRepository).findAllResponses();
+        }
+    }
+
+    // ==================== PAGINATION TESTS ====================
+
+    @Nested
+    @DisplayName("Pagination Tests")
+    class PaginationTests {
+
+        @Test
+        @DisplayName("Should return first page with cursor when more products exist")
+        void shouldReturnFirstPageWithCursor() {
+            // Given - one row beyond the page size means another page exists
+            Product extra = new Product();
+            extra.setId(3L);
+            when(productRepository.findFirstPage(PageRequest.of(0, 3)))
+                    .thenReturn(responses(testProduct1, testProduct2, extra));
+
+            // When
+            ProductPage<ProductResponse> result = productService.findPage(null, 2);
+
+            // Then
+            assertEquals(2, result.getItems().size());
+            assertEquals("Laptop", result.getItems().get(0).getName());
+            assertNotNull(result.getNextCursor());
+
+            ProductCursor cursor = ProductCursor.decode(result.getNextCursor());
+            assertEquals(testProduct2.getCreatedAt(), cursor.createdAt());
+            assertEquals(2L, cursor.id());
+        }
+
+        @Test
+        @DisplayName("Should continue after cursor and return no cursor on last page")
+        void shouldContinueAfterCursor() {
+            // Given
+            String cursor = new ProductCursor(testProduct1.getCreatedAt(), 1L).encode();
+            when(productRepository.findPageAfter(testProduct1.getCreatedAt(), 1L, PageRequest.of(0, 21)))
+                    .thenReturn(responses(testProduct2));
+
+            // When
+            ProductPage<ProductResponse> result = productService.findPage(cursor, null);
+
+            // Then
+            assertEquals(1, result.getItems().size());
+            assertEquals("Mouse", result.getItems().get(0).getName());
+            assertNull(result.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should page summaries with the same cursor format")
+        void shouldPageSummaries() {
+            // Given
+            ProductSummaryResponse laptop = summary(testProduct1);
+            ProductSummaryResponse mouse = summary(testProduct2);
+            when(productRepository.findSummaryFirstPage(PageRequest.of(0, 2)))
+                    .thenReturn(List.of(laptop, mouse));
+
+            // When
+            ProductPage<ProductSummaryResponse> result = productService.findSummaryPage(null, 1);
+
+            // Then
+            assertEquals(1, result.getItems().size());
+            assertEquals("Laptop", result.getItems().get(0).getName());
+
+            ProductCursor cursor = ProductCursor.decode(result.getNextCursor());
+            assertEquals(testProduct1.getCreatedAt(), cursor.createdAt());
+            assertEquals(1L, cursor.id());
+            verify(productRepository, never()).findFirstPage(any());
+        }
+
+        @Test
+        @DisplayName("Should cap page size at configured maximum")
+        void shouldCapPageSize() {
+            // Given
+            when(productRepository.searchFirstPage(eq("laptop"), eq(PageRequest.of(0, 101))))
+                    .thenReturn(responses(testProduct1));
+
+            // When
+            ProductPage<ProductResponse> result = productService.searchPage("laptop", null, 5000);
+
+            // Then
+            assertEquals(1, result.getItems().size());
+            verify(productRepository).searchFirstPage("laptop", PageRequest.of(0, 101));
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursor")
+        void shouldRejectMalformedCursor() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> productService.findPage("not-a-cursor", 10)
+            );
+
+            assertEquals("Invalid cursor", exception.getMessage());
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject page size below one")
+        void shouldRejectInvalidPageSize() {
+            // When & Then
+            assertThrows(IllegalArgumentException.class, () -> productService.findPage(null, 0));
+        }
+    }
+
+    // ==================== FULL-TEXT SEARCH TESTS ====================
+
+    @Nested
+    @DisplayName("Full-Text Search Tests")
+    class FullTextSearchTests {
+
+        @Test
+        @DisplayName("Should use ranked full-text query on PostgreSQL")
+        void shouldUseFullTextSearchOnPostgreSql() {
+            // Given
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(productRepository.fullTextSearch("wireless mouse", 2, 0))
+                    .thenReturn(Arrays.asList(testProduct2, testProduct1));
+
+            // When
+            ProductPage<ProductResponse> result = productService.fullTextSearch("wireless mouse", null, 1);
+
+            // Then
+            assertEquals(1, result.getItems().size());
+            assertEquals("Mouse", result.getItems().get(0).getName());
+            assertNotNull(result.getNextCursor());
+            verify(productRepository, never()).nameContainsSearch(any(), anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should continue from offset cursor")
+        void shouldContinueFromOffsetCursor() {
+            // Given
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(productRepository.fullTextSearch("wireless mouse", 2, 0))
+                    .thenReturn(Arrays.asList(testProduct2, testProduct1));
+            String cursor = productService.fullTextSearch("wireless mouse", null, 1).getNextCursor();
+
+            when(productRepository.fullTextSearch("wireless mouse", 2, 1))
+                    .thenReturn(List.of(testProduct1));
+
+            // When
+            ProductPage<ProductResponse> result = productService.fullTextSearch("wireless mouse", cursor, 1);
+
+            // Then
+            assertEquals("Laptop", result.getItems().get(0).getName());
+            assertNull(result.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should fall back to name match on other databases")
+        void shouldFallBackToNameMatch() {
+            // Given
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(productRepository.nameContainsSearch("lap", 21, 0)).thenReturn(List.of(testProduct1));
+
+            // When
+            ProductPage<ProductResponse> result = productService.fullTextSearch("lap", null, null);
+
+            // Then
+            assertEquals(1, result.getItems().size());
+            assertNull(result.getNextCursor());
+            verify(productRepository, never()).fullTextSearch(any(), anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should reject blank query")
+        void shouldRejectBlankQuery() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> productService.fullTextSearch("  ", null, null)
+            );
+
+            assertEquals("Search query must not be blank", exception.getMessage());
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    // ==================== SUBSTRING SEARCH TESTS ====================
+
+    @Nested
+    @DisplayName("Substring Search Tests")
+    class SubstringSearchTests {
+
+        @Test
+        @DisplayName("Should load index hits by primary key in index order")
+        void shouldServeFromIndex() {
+            // Given
+            when(productSearchIndex.isReady()).thenReturn(true);
+            when(productSearchIndex.search("wire", 21)).thenReturn(List.of(2L, 1L));
+            when(productRepository.findResponsesByIdIn(List.of(2L, 1L))).thenReturn(responses(testProduct1, testProduct2));
+
+            // When
+            ProductPage<ProductResponse> result = productService.substringSearch("wire", null, null);
+
+            // Then
+            assertEquals(2, result.getItems().size());
+            assertEquals("Mouse", result.getItems().get(0).getName());
+            assertEquals("Laptop", result.getItems().get(1).getName());
+            assertNull(result.getNextCursor());
+            verify(productRepository, never()).nameContainsSearch(any(), anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should fall back to database while index is not ready")
+        void shouldFallBackWhenIndexNotReady() {
+            // Given
+            when(productSearchIndex.isReady()).thenReturn(false);
+            when(productRepository.nameContainsSearch("lap", 21, 0)).thenReturn(List.of(testProduct1));
+
+            // When
+            ProductPage<ProductResponse> result = productService.substringSearch("lap", null, null);
+
+            // Then
+            assertEquals(1, result.getItems().size());
+            verify(productSearchIndex, never()).search(any(), anyInt());
         }
     }
 
@@ -128,7 +397,7 @@ class ProductServiceTest {
         void shouldFindProductById() {
             // Given
             Long productId = 1L;
-            when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct1));
+            when(productRepository.findResponseById(productId)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
 
             // When
             ProductResponse result = productService.findById(productId);
@@ -140,7 +409,7 @@ class ProductServiceTest {
             assertEquals(new BigDecimal("999.99"), result.getPrice());
             assertEquals(10, result.getStock());
 
-            verify(productRepository).findById(productId);
+            verify(productRepository).findResponseById(productId);
         }
 
         @Test
@@ -148,7 +417,7 @@ class ProductServiceTest {
         void shouldThrowExceptionWhenNotFound() {
             // Given
             Long productId = 999L;
-            when(productRepository.findById(productId)).thenReturn(Optional.empty());
+            when(productRepository.findResponseById(productId)).thenReturn(Optional.empty());
 
             // When & Then
             IllegalArgumentException exception = assertThrows(
@@ -157,7 +426,158 @@ class ProductServiceTest {
             );
 
             assertEquals("Product not found", exception.getMessage());
-            verify(productRepository).findById(productId);
+            verify(productRepository).findResponseById(productId);
+        }
+
+        @Test
+        @DisplayName("Should serve repeated reads from cache")
+        void shouldServeRepeatedReadsFromCache() {
+            // Given
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
+
+            // When
+            productService.findById(1L);
+            ProductResponse result = productService.findById(1L);
+
+            // Then
+            assertEquals("Laptop", result.getName());
+            verify(productRepository, times(1)).findResponseById(1L);
+            assertEquals(1L, productService.cacheStats().getHitCount());
+        }
+
+        @Test
+        @DisplayName("Should reload product after change event invalidates it")
+        void shouldReloadAfterInvalidation() {
+            // Given
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
+            productService.findById(1L);
+
+            // When
+            productCache.onProductChanged(ProductChangedEvent.deleted(1L));
+            productService.findById(1L);
+
+            // Then
+            verify(productRepository, times(2)).findResponseById(1L);
+        }
+
+        @Test
+        @DisplayName("Should not cache missing products")
+        void shouldNotCacheMissingProducts() {
+            // Given
+            when(productRepository.findResponseById(999L)).thenReturn(Optional.empty());
+
+            // When
+            assertThrows(IllegalArgumentException.class, () -> productService.findById(999L));
+            assertThrows(IllegalArgumentException.class, () -> productService.findById(999L));
+
+            // Then
+            verify(productRepository, times(2)).findResponseById(999L);
+        }
+
+        @Test
+        @DisplayName("Should load cache misses from the off-heap store once it is ready")
+        void shouldLoadFromOffHeapStore() {
+            // Given
+            when(offHeapProductStore.isReady()).thenReturn(true);
+            when(offHeapProductStore.find(1L)).thenReturn(ProductResponse.fromEntity(testProduct1));
+
+            // When
+            ProductResponse result = productService.findById(1L);
+
+            // Then
+            assertEquals("Laptop", result.getName());
+            verify(productRepository, never()).findResponseById(any());
+        }
+
+        @Test
+        @DisplayName("Should render the response body once and serve the same bytes again")
+        void shouldServeRenderedBodyFromCache() {
+            // Given
+            testProduct1.setVersion(3L);
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
+
+            // When
+            ProductJsonCache.Rendered first = productService.findRenderedById(1L);
+            ProductJsonCache.Rendered second = productService.findRenderedById(1L);
+
+            // Then
+            String json = new String(first.body(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"message\":\"Product found\""));
+            assertTrue(json.contains("\"name\":\"Laptop\""));
+            assertEquals(3L, first.version());
+            assertSame(first.body(), second.body());
+            verify(productRepository, times(1)).findResponseById(1L);
+        }
+
+        @Test
+        @DisplayName("Should render the body again after a stock change")
+        void shouldRerenderAfterStockChange() {
+            // Given
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
+            ProductJsonCache.Rendered before = productService.findRenderedById(1L);
+
+            // When
+            testProduct1.setStock(4);
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
+            ProductChangedEvent event = ProductChangedEvent.stockChanged(1L);
+            productCache.onProductChanged(event);
+            productJsonCache.onProductChanged(event);
+            ProductJsonCache.Rendered after = productService.findRenderedById(1L);
+
+            // Then
+            assertNotSame(before.body(), after.body());
+            assertTrue(new String(after.body(), StandardCharsets.UTF_8).contains("\"stock\":4"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Find By IDs Tests")
+    class FindByIdsTests {
+
+        @Test
+        @DisplayName("Should return products in requested order and report missing ids")
+        void shouldReturnProductsInRequestedOrder() {
+            // Given
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(productRepository.findAllByIdArray(any(Long[].class))).thenReturn(List.of(testProduct1, testProduct2));
+
+            // When
+            ProductLookup result = productService.findByIds(List.of(2L, 999L, 1L, 2L));
+
+            // Then
+            assertEquals(List.of(2L, 1L), result.getItems().stream().map(ProductResponse::getId).toList());
+            assertEquals(List.of(999L), result.getMissingIds());
+            verify(productRepository).findAllByIdArray(argThat(ids -> Set.of(ids).equals(Set.of(1L, 2L, 999L))));
+        }
+
+        @Test
+        @DisplayName("Should load only cache misses, with one query")
+        void shouldLoadOnlyCacheMisses() {
+            // Given
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
+            productService.findById(1L);
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(productRepository.findResponsesByIdIn(List.of(2L))).thenReturn(List.of(ProductResponse.fromEntity(testProduct2)));
+
+            // When
+            ProductLookup result = productService.findByIds(List.of(1L, 2L));
+
+            // Then
+            assertEquals(2, result.getItems().size());
+            assertTrue(result.getMissingIds().isEmpty());
+            verify(productRepository, times(1)).findResponsesByIdIn(any());
+            verify(productRepository, never()).findAllByIdArray(any());
+        }
+
+        @Test
+        @DisplayName("Should reject empty and oversized lookups without a query")
+        void shouldRejectInvalidLookups() {
+            // When & Then
+            assertThrows(IllegalArgumentException.class, () -> productService.findByIds(List.of()));
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> productService.findByIds(List.of(1L, 2L, 3L, 4L)));
+            assertEquals("At most 3 product ids per lookup", exception.getMessage());
+            verifyNoInteractions(productRepository);
         }
     }
 
@@ -198,6 +618,8 @@ class ProductServiceTest {
             assertTrue(result.getActive());
 
             verify(productRepository).save(any(Product.class));
+            verify(catalogVersion).bump();
+            verify(eventPublisher).publishEvent(ProductChangedEvent.created(result));
         }
 
         @Test
@@ -247,7 +669,7 @@ class ProductServiceTest {
     class UpdateTests {
 
         @Test
-        @DisplayName("Should update existing product successfully")
+        @DisplayName("Should update with one statement and return the new row on PostgreSQL")
         void shouldUpdateProduct() {
             // Given
             Long productId = 1L;
@@ -271,12 +693,14 @@ class ProductServiceTest {
             updatedProduct.setActive(request.getActive());
             updatedProduct.setCreatedAt(LocalDateTime.now());
             updatedProduct.setUpdatedAt(LocalDateTime.now());
+            updatedProduct.setVersion(4L);
 
-            when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct1));
-            when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(productRepository.updateReturning(eq(productId), eq(3L), eq(request), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(updatedProduct));
 
             // When
-            ProductResponse result = productService.update(productId, request);
+            ProductResponse result = productService.update(productId, request, 3L);
 
             // Then
             assertNotNull(result);
@@ -286,9 +710,50 @@ class ProductServiceTest {
             assertEquals(15, result.getStock());
             assertEquals("LAPTOP-UPD", result.getSku());
             assertFalse(result.getActive());
+            assertEquals(4L, result.getVersion());
 
-            verify(productRepository).findById(productId);
-            verify(productRepository).save(any(Product.class));
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).save(any(Product.class));
+            verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should read the updated row back on other databases")
+        void shouldUpdateProductWithoutReturning() {
+            // Given
+            ProductResponse updated = ProductResponse.fromEntity(testProduct1);
+            when(databasePlatform.isPostgreSql()).thenReturn(false);
+            when(productRepository.updateIfVersion(eq(1L), isNull(), eq(testRequest), any(LocalDateTime.class)))
+                    .thenReturn(1);
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(updated));
+
+            // When
+            ProductResponse result = productService.update(1L, testRequest, null);
+
+            // Then
+            assertSame(updated, result);
+            verify(catalogVersion).bump();
+            verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should fail the precondition when the product has a newer version")
+        void shouldRejectStaleVersion() {
+            // Given
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(productRepository.updateReturning(eq(1L), eq(2L), eq(testRequest), any(LocalDateTime.class)))
+                    .thenReturn(Optional.empty());
+            when(productRepository.existsById(1L)).thenReturn(true);
+
+            // When & Then
+            PreconditionFailedException exception = assertThrows(
+                    PreconditionFailedException.class,
+                    () -> productService.update(1L, testRequest, 2L)
+            );
+
+            assertEquals("Product was modified since version 2", exception.getMessage());
+            verify(catalogVersion, never()).bump();
+            verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
         }
 
         @Test
@@ -296,17 +761,20 @@ class ProductServiceTest {
         void shouldThrowExceptionWhenUpdatingNonExistent() {
             // Given
             Long productId = 999L;
-            when(productRepository.findById(productId)).thenReturn(Optional.empty());
+            when(databasePlatform.isPostgreSql()).thenReturn(true);
+            when(productRepository.updateReturning(eq(productId), isNull(), eq(testRequest), any(LocalDateTime.class)))
+                    .thenReturn(Optional.empty());
 
             // When & Then
             IllegalArgumentException exception = assertThrows(
                     IllegalArgumentException.class,
-                    () -> productService.update(productId, testRequest)
+                    () -> productService.update(productId, testRequest, null)
             );
 
             assertEquals("Product not found", exception.getMessage());
-            verify(productRepository).findById(productId);
-            verify(productRepository, never()).save(any(Product.class));
+            // Without a version there is nothing to be stale against
+            verify(productRepository, never()).existsById(any());
+            verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
         }
     }
 
@@ -329,7 +797,10 @@ class ProductServiceTest {
 
             // Then
             verify(productRepository).existsById(productId);
+            verify(productTombstoneRepository).recordDeletes(eq(List.of(productId)), any(LocalDateTime.class));
             verify(productRepository).deleteById(productId);
+            verify(catalogVersion).bump();
+            verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(productId));
         }
 
         @Test
@@ -348,6 +819,8 @@ class ProductServiceTest {
             assertEquals("Product not found", exception.getMessage());
             verify(productRepository).existsById(productId);
             verify(productRepository, never()).deleteById(anyLong());
+            verifyNoInteractions(productTombstoneRepository);
+            verifyNoInteractions(eventPublisher);
         }
     }
 
@@ -362,9 +835,9 @@ class ProductServiceTest {
         void shouldSearchProductsByName() {
             // Given
             String searchTerm = "lap";
-            List<Product> products = Arrays.asList(testProduct1);
+            List<ProductResponse> products = responses(testProduct1);
 
-            when(productRepository.findByNameContainingIgnoreCase(searchTerm)).thenReturn(products);
+            when(productRepository.findResponsesByNameContaining(searchTerm)).thenReturn(products);
 
             // When
             List<ProductResponse> result = productService.searchByName(searchTerm);
@@ -374,7 +847,7 @@ class ProductServiceTest {
             assertEquals(1, result.size());
             assertEquals("Laptop", result.get(0).getName());
 
-            verify(productRepository).findByNameContainingIgnoreCase(searchTerm);
+            verify(productRepository).findResponsesByNameContaining(searchTerm);
         }
 
         @Test
@@ -382,9 +855,9 @@ class ProductServiceTest {
         void shouldSearchWithUppercaseTerm() {
             // Given
             String searchTerm = "MOUSE";
-            List<Product> products = Arrays.asList(testProduct2);
+            List<ProductResponse> products = responses(testProduct2);
 
-            when(productRepository.findByNameContainingIgnoreCase(searchTerm)).thenReturn(products);
+            when(productRepository.findResponsesByNameContaining(searchTerm)).thenReturn(products);
 
             // When
             List<ProductResponse> result = productService.searchByName(searchTerm);
@@ -394,7 +867,7 @@ class ProductServiceTest {
             assertEquals(1, result.size());
             assertEquals("Mouse", result.get(0).getName());
 
-            verify(productRepository).findByNameContainingIgnoreCase(searchTerm);
+            verify(productRepository).findResponsesByNameContaining(searchTerm);
         }
 
         @Test
@@ -402,7 +875,7 @@ class ProductServiceTest {
         void shouldReturnEmptyListWhenNoMatch() {
             // Given
             String searchTerm = "nonexistent";
-            when(productRepository.findByNameContainingIgnoreCase(searchTerm)).thenReturn(List.of());
+            when(productRepository.findResponsesByNameContaining(searchTerm)).thenReturn(List.of());
 
             // When
             List<ProductResponse> result = productService.searchByName(searchTerm);
@@ -411,7 +884,7 @@ class ProductServiceTest {
             assertNotNull(result);
             assertTrue(result.isEmpty());
 
-            verify(productRepository).findByNameContainingIgnoreCase(searchTerm);
+            verify(productRepository).findResponsesByNameContaining(searchTerm);
         }
 
         @Test
@@ -429,9 +902,9 @@ class ProductServiceTest {
             product3.setUpdatedAt(LocalDateTime.now());
 
             String searchTerm = "lap";
-            List<Product> products = Arrays.asList(testProduct1, product3);
+            List<ProductResponse> products = responses(testProduct1, product3);
 
-            when(productRepository.findByNameContainingIgnoreCase(searchTerm)).thenReturn(products);
+            when(productRepository.findResponsesByNameContaining(searchTerm)).thenReturn(products);
 
             // When
             List<ProductResponse> result = productService.searchByName(searchTerm);
@@ -442,7 +915,7 @@ class ProductServiceTest {
             assertEquals("Laptop", result.get(0).getName());
             assertEquals("Laptop Stand", result.get(1).getName());
 
-            verify(productRepository).findByNameContainingIgnoreCase(searchTerm);
+            verify(productRepository).findResponsesByNameContaining(searchTerm);
         }
     }
 
@@ -465,7 +938,7 @@ class ProductServiceTest {
             productWithZeroStock.setCreatedAt(LocalDateTime.now());
             productWithZeroStock.setUpdatedAt(LocalDateTime.now());
 
-            when(productRepository.findById(5L)).thenReturn(Optional.of(productWithZeroStock));
+            when(productRepository.findResponseById(5L)).thenReturn(Optional.of(ProductResponse.fromEntity(productWithZeroStock)));
 
             // When
             ProductResponse result = productService.findById(5L);
@@ -507,7 +980,7 @@ class ProductServiceTest {
         void shouldHandleInactiveProduct() {
             // Given
             testProduct1.setActive(false);
-            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct1));
+            when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct1)));
 
             // When
             ProductResponse result = productService.findById(1L);
@@ -517,4 +990,15 @@ class ProductServiceTest {
             assertFalse(result.getActive());
         }
     }
+
+    private static List<ProductResponse> responses(Product... products) {
+        return Arrays.stream(products)
+                .map(ProductResponse::fromEntity)
+                .toList();
+    }
+
+    private static ProductSummaryResponse summary(Product product) {
+        return new ProductSummaryResponse(product.getId(), product.getName(), product.getPrice(), product.getStock(),
+                product.getImageUrl(), product.getSku(), product.getActive(), product.getCreatedAt(), product.getUpdatedAt());
+    }
 }
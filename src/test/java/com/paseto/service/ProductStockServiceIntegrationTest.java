@@ -0,0 +1,152 @@
+package com.paseto.service;
+
+import com.paseto.entity.Product;
+import com.paseto.exception.InsufficientStockException;
+import com.paseto.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No test transaction: every reservation commits on its own, as in production.
+// The reconcile interval is long so the tests decide when leases go back.
+@SpringBootTest(properties = {
+        "catalog.stock.hot-skus=HOT-001",
+        "catalog.stock.lease-size=50",
+        "catalog.stock.stripes=4",
+        "catalog.stock.reconcile-interval=1h"
+})
+@ActiveProfiles("test")
+@DisplayName("ProductStockService Integration Tests")
+class ProductStockServiceIntegrationTest {
+
+    private static final int RESERVERS = 2000;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productStockService.reconcile();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should never oversell a single SKU under thousands of concurrent reservers")
+    void shouldNotOversellInDatabase() throws Exception {
+        // Given
+        Product product = product("STOCK-001", 500);
+
+        // When
+        int reserved = reserveConcurrently(product.getId());
+
+        // Then
+        assertEquals(500, reserved);
+        assertEquals(0, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Should never oversell a hot SKU served from the striped counter")
+    void shouldNotOversellHotSku() throws Exception {
+        // Given - 520 units: ten full leases of 50, then 20 taken one by one from the row
+        Product product = product("HOT-001", 520);
+
+        // When
+        int reserved = reserveConcurrently(product.getId());
+        productStockService.reconcile();
+
+        // Then
+        assertEquals(520, reserved);
+        assertEquals(0, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Should return unsold leased and released units to the row on reconcile")
+    void shouldReconcileHotSku() {
+        // Given
+        Product product = product("HOT-001", 500);
+
+        // When
+        productStockService.reserve(product.getId(), 10);
+        productStockService.release(product.getId(), 4);
+
+        // Then - one lease of 50 left the row, the rest of it comes back
+        assertEquals(450, stockOf(product));
+        productStockService.reconcile();
+        assertEquals(494, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Should reject a reservation larger than the stock and leave the stock alone")
+    void shouldRejectInsufficientStock() {
+        // Given
+        Product product = product("STOCK-002", 3);
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> productStockService.reserve(product.getId(), 4));
+        assertEquals(3, stockOf(product));
+
+        productStockService.release(product.getId(), 2);
+        assertEquals(5, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Should report unknown products as not found")
+    void shouldRejectUnknownProduct() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productStockService.reserve(999999L, 1));
+        assertEquals("Product not found", exception.getMessage());
+    }
+
+    private int reserveConcurrently(Long id) throws Exception {
+        List<Future<Boolean>> attempts = new ArrayList<>(RESERVERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < RESERVERS; i++) {
+                attempts.add(executor.submit(() -> {
+                    try {
+                        productStockService.reserve(id, 1);
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+        }
+
+        int reserved = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                reserved++;
+            }
+        }
+        return reserved;
+    }
+
+    private Product product(String sku, int stock) {
+        Product product = new Product();
+        product.setName("Stock Product " + sku);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(stock);
+        product.setSku(sku);
+        return productRepository.save(product);
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,171 @@
+package com.paseto.service;
+
+import com.paseto.dto.ProductResponse;
+import com.paseto.dto.ProductSuggestion;
+import com.paseto.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductSuggester Unit Tests")
+class ProductSuggesterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSuggester suggester;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 12, 26, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester(jdbcTemplate, transactionManager, 1000, 3);
+
+        suggester.onProductChanged(ProductChangedEvent.created(product(1L, "Wireless Headphones", now.minusDays(3))));
+        suggester.onProductChanged(ProductChangedEvent.created(product(2L, "Wireless Mouse", now.minusDays(1))));
+        suggester.onProductChanged(ProductChangedEvent.created(product(3L, "Wired Keyboard", now.minusDays(2))));
+        suggester.onProductChanged(ProductChangedEvent.created(product(4L, "Webcam", now)));
+        suggester.onProductChanged(ProductChangedEvent.created(product(5L, "wireless charger", now.minusDays(5))));
+        suggester.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggester.shutdown();
+    }
+
+    private ProductResponse product(Long id, String name, LocalDateTime createdAt) {
+        return product(id, name, createdAt, 0L);
+    }
+
+    private ProductResponse product(Long id, String name, LocalDateTime createdAt, Long version) {
+        return new ProductResponse(id, name, null, new BigDecimal("10.00"), 1, null, null, true, createdAt, createdAt, version);
+    }
+
+    private ResultSet row(long id, String name, LocalDateTime createdAt) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("name")).thenReturn(name);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(createdAt));
+        when(rs.getObject("version", Long.class)).thenReturn(0L);
+        return rs;
+    }
+
+    private List<Long> ids(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Should return completions newest first")
+    void shouldReturnNewestFirst() {
+        // When
+        List<ProductSuggestion> result = suggester.suggest("wire", null);
+
+        // Then - capped at max-results of 3
+        assertEquals(List.of(2L, 3L, 1L), ids(result));
+        assertEquals("Wireless Mouse", result.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should match prefix case-insensitively")
+    void shouldIgnoreCase() {
+        // When & Then
+        assertEquals(List.of(2L, 1L, 5L), ids(suggester.suggest("WIRELESS", 10)));
+    }
+
+    @Test
+    @DisplayName("Should respect requested limit")
+    void shouldRespectLimit() {
+        // When & Then
+        assertEquals(List.of(4L), ids(suggester.suggest("w", 1)));
+    }
+
+    @Test
+    @DisplayName("Should return empty list when nothing matches")
+    void shouldReturnEmptyWhenNoMatch() {
+        // When & Then
+        assertTrue(suggester.suggest("keyboard", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply renames and deletes after rebuild")
+    void shouldApplyChanges() {
+        // When
+        suggester.onProductChanged(ProductChangedEvent.updated(product(2L, "Gaming Mouse", now.minusDays(1))));
+        suggester.onProductChanged(ProductChangedEvent.deleted(1L));
+        suggester.rebuild();
+
+        // Then
+        assertEquals(List.of(3L, 5L), ids(suggester.suggest("wire", null)));
+        assertEquals(List.of(2L), ids(suggester.suggest("gam", null)));
+    }
+
+    @Test
+    @DisplayName("Should keep the newer name when an older rename arrives late")
+    void shouldIgnoreOlderVersion() {
+        // When
+        suggester.onProductChanged(ProductChangedEvent.updated(product(2L, "Gaming Mouse", now.minusDays(1), 2L)));
+        suggester.onProductChanged(ProductChangedEvent.updated(product(2L, "Office Mouse", now.minusDays(1), 1L)));
+        suggester.rebuild();
+
+        // Then
+        assertEquals(List.of(2L), ids(suggester.suggest("gam", null)));
+        assertTrue(suggester.suggest("off", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not bring back a product deleted while a reload streams rows")
+    void shouldDropProductsDeletedDuringReload() throws Exception {
+        // Given - product 2 is deleted after the reload cleared the entries, but its row is still read
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            suggester.onProductChanged(ProductChangedEvent.deleted(2L));
+            handler.processRow(row(2L, "Wireless Mouse", now.minusDays(1)));
+            handler.processRow(row(6L, "Wireless Speaker", now.plusDays(1)));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // When
+        suggester.reload();
+
+        // Then
+        assertEquals(List.of(6L), ids(suggester.suggest("wireless", 10)));
+    }
+
+    @Test
+    @DisplayName("Should reject blank prefix")
+    void shouldRejectBlankPrefix() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> suggester.suggest("   ", null)
+        );
+
+        assertEquals("Prefix must not be blank", exception.getMessage());
+    }
+}
@@ -0,0 +1,147 @@
+package com.paseto.service;
+
+import com.paseto.dto.AuthDataResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RefreshCoalescer Unit Tests")
+class RefreshCoalescerTest {
+
+    private static final String JTI = "token-id";
+    private static final String TOKEN = "v4.public.refresh-token";
+
+    @Test
+    @DisplayName("Should run a single rotation for concurrent refreshes of the same token")
+    void shouldCoalesceConcurrentRefreshes() throws Exception {
+        // Given
+        RefreshCoalescer coalescer = new RefreshCoalescer(10, 5000);
+        AtomicInteger rotations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // When
+            List<Future<AuthDataResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coalescer.execute(JTI, TOKEN, () -> {
+                rotations.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return pair("access-1", "refresh-1");
+            })));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> coalescer.execute(JTI, TOKEN, () -> {
+                    rotations.incrementAndGet();
+                    return pair("access-x", "refresh-x");
+                })));
+            }
+            release.countDown();
+
+            // Then
+            for (Future<AuthDataResponse> result : results) {
+                assertEquals("refresh-1", result.get(5, TimeUnit.SECONDS).getRefreshToken());
+            }
+            assertEquals(1, rotations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return rotated pair for retries within grace window")
+    void shouldReturnRotatedPairWithinGraceWindow() {
+        // Given
+        RefreshCoalescer coalescer = new RefreshCoalescer(10, 5000);
+        coalescer.execute(JTI, TOKEN, () -> pair("access-1", "refresh-1"));
+
+        // When
+        AuthDataResponse retry = coalescer.execute(JTI, TOKEN, () -> fail("Should not rotate again"));
+
+        // Then
+        assertEquals("refresh-1", retry.getRefreshToken());
+        assertTrue(coalescer.recentResult(JTI, "another-token").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return the published pair when a leader finishes between lookup and claim")
+    void shouldReturnPairPublishedAfterLookup() {
+        // Given - another refresh rotates and publishes right after the first grace lookup misses
+        AtomicBoolean interleaved = new AtomicBoolean();
+        RefreshCoalescer coalescer = new RefreshCoalescer(10, 5000) {
+            @Override
+            public Optional<AuthDataResponse> recentResult(String jti, String presentedToken) {
+                Optional<AuthDataResponse> result = super.recentResult(jti, presentedToken);
+                if (interleaved.compareAndSet(false, true)) {
+                    execute(jti, presentedToken, () -> pair("access-1", "refresh-1"));
+                }
+                return result;
+            }
+        };
+
+        // When
+        AuthDataResponse late = coalescer.execute(JTI, TOKEN, () -> fail("Should not rotate again"));
+
+        // Then
+        assertEquals("refresh-1", late.getRefreshToken());
+    }
+
+    @Test
+    @DisplayName("Should not cache results when grace window is disabled")
+    void shouldNotCacheWhenGraceDisabled() {
+        // Given
+        RefreshCoalescer coalescer = new RefreshCoalescer(0, 5000);
+        coalescer.execute(JTI, TOKEN, () -> pair("access-1", "refresh-1"));
+
+        // When
+        AuthDataResponse second = coalescer.execute(JTI, TOKEN, () -> pair("access-2", "refresh-2"));
+
+        // Then
+        assertEquals("refresh-2", second.getRefreshToken());
+    }
+
+    @Test
+    @DisplayName("Should propagate rotation failure and allow a later attempt")
+    void shouldPropagateRotationFailure() {
+        // Given
+        RefreshCoalescer coalescer = new RefreshCoalescer(10, 5000);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> coalescer.execute(JTI, TOKEN, () -> {
+                    throw new IllegalArgumentException("Refresh token has been revoked or expired");
+                })
+        );
+        assertEquals("Refresh token has been revoked or expired", exception.getMessage());
+
+        AuthDataResponse next = coalescer.execute(JTI, TOKEN, () -> pair("access-2", "refresh-2"));
+        assertEquals("refresh-2", next.getRefreshToken());
+    }
+
+    private static AuthDataResponse pair(String accessToken, String refreshToken) {
+        return new AuthDataResponse(accessToken, refreshToken, "Bearer", 900L, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
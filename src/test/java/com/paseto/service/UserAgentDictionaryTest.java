@@ -0,0 +1,93 @@
+package com.paseto.service;
+
+import com.paseto.config.DatabasePlatform;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserAgentDictionary Unit Tests")
+class UserAgentDictionaryTest {
+
+    private static final String SELECT_ID = "SELECT id FROM user_agents WHERE user_agent = ?";
+    private static final String INSERT_RETURNING =
+            "INSERT INTO user_agents (user_agent) VALUES (?) ON CONFLICT (user_agent) DO NOTHING RETURNING id";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    private UserAgentDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new UserAgentDictionary(jdbcTemplate, databasePlatform, 100);
+    }
+
+    @Test
+    @DisplayName("Should return null for missing User-Agent")
+    void shouldReturnNullForMissingUserAgent() {
+        assertNull(dictionary.resolveId(null));
+        assertNull(dictionary.resolveId(""));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should serve known User-Agent from cache after first lookup")
+    void shouldCacheKnownUserAgent() {
+        // Given
+        when(jdbcTemplate.queryForList(SELECT_ID, Integer.class, "curl/8.0")).thenReturn(List.of(7));
+
+        // When
+        Integer first = dictionary.resolveId("curl/8.0");
+        Integer second = dictionary.resolveId("curl/8.0");
+
+        // Then
+        assertEquals(7, first);
+        assertEquals(7, second);
+        verify(jdbcTemplate, times(1)).queryForList(SELECT_ID, Integer.class, "curl/8.0");
+    }
+
+    @Test
+    @DisplayName("Should insert unknown User-Agent with conflict handling on PostgreSQL")
+    void shouldInsertUnknownUserAgent() {
+        // Given
+        when(jdbcTemplate.queryForList(SELECT_ID, Integer.class, "new-agent")).thenReturn(List.of());
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(jdbcTemplate.queryForList(INSERT_RETURNING, Integer.class, "new-agent")).thenReturn(List.of(42));
+
+        // When
+        Integer id = dictionary.resolveId("new-agent");
+
+        // Then
+        assertEquals(42, id);
+        verify(jdbcTemplate).queryForList(INSERT_RETURNING, Integer.class, "new-agent");
+    }
+
+    @Test
+    @DisplayName("Should truncate User-Agent longer than column size")
+    void shouldTruncateLongUserAgent() {
+        // Given
+        String longAgent = "a".repeat(300);
+        when(jdbcTemplate.queryForList(eq(SELECT_ID), eq(Integer.class), anyString())).thenReturn(List.of(3));
+
+        // When
+        dictionary.resolveId(longAgent);
+
+        // Then
+        verify(jdbcTemplate).queryForList(SELECT_ID, Integer.class, "a".repeat(255));
+    }
+}